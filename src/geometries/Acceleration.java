@@ -0,0 +1,19 @@
+package geometries;
+
+/**
+ * The acceleration structures a scene's geometries can be compiled into, see {@link Geometries#compile(Acceleration)}
+ */
+public enum Acceleration {
+    /**
+     * A bounding volume hierarchy, split at the median of the longest axis
+     */
+    BVH,
+    /**
+     * A uniform grid traversed by 3D-DDA, for scenes of many similar-sized geometries
+     */
+    GRID,
+    /**
+     * A k-d tree split by the surface area heuristic, for static scenes of many triangles
+     */
+    KD_TREE
+}
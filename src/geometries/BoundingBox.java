@@ -1,8 +1,11 @@
 package geometries;
 
 import primitives.*;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * The BoundingBox class represents an axis-aligned bounding box (AABB) for 3D geometries.
@@ -22,6 +25,10 @@ public class BoundingBox {
     // Cached center point for better performance
     private Point center;
 
+    // the coordinates of min and max, cached for the slab test
+    private final double minX, minY, minZ;
+    private final double maxX, maxY, maxZ;
+
     /**
      * Constructs a BoundingBox with specified minimum and maximum points.
      *
@@ -31,6 +38,12 @@ public class BoundingBox {
     public BoundingBox(Point min, Point max) {
         this.min = min;
         this.max = max;
+        minX = min.getX();
+        minY = min.getY();
+        minZ = min.getZ();
+        maxX = max.getX();
+        maxY = max.getY();
+        maxZ = max.getZ();
     }
 
     /**
@@ -40,52 +53,58 @@ public class BoundingBox {
      * @return true if the ray intersects the bounding box, false otherwise
      */
     public boolean hasIntersection(Ray ray) {
-        Point head = ray.getPoint(0);
-        Vector dir = ray.getDirection();
-
-        double tMin = Double.NEGATIVE_INFINITY;
-        double tMax = Double.POSITIVE_INFINITY;
-
-        // For each axis X, Y, Z
-        for (int axis = 0; axis < 3; axis++) {
-            double axisDir = dir.get(axis);
-            double axisOrigin = head.get(axis);
-            double axisMin = min.get(axis);
-            double axisMax = max.get(axis);
-
-            // Handle parallel rays to an axis
-            if (Math.abs(axisDir) < 1e-10) {
-                // Ray is parallel to slab. No hit if origin not within slab
-                if (axisOrigin < axisMin || axisOrigin > axisMax) {
-                    return false;
-                }
-                // Otherwise, parallel ray is inside this slab, so continue to next axis
-                continue;
-            }
-
-            // Calculate intersection distances
-            double t1 = (axisMin - axisOrigin) / axisDir;
-            double t2 = (axisMax - axisOrigin) / axisDir;
-
-            // Ensure t1 is the nearest intersection
-            if (t1 > t2) {
-                double temp = t1;
-                t1 = t2;
-                t2 = temp;
-            }
+        return hasIntersection(ray, 0, Double.POSITIVE_INFINITY);
+    }
 
-            // Update tMin and tMax
-            tMin = Math.max(tMin, t1);
-            tMax = Math.min(tMax, t2);
+    /**
+     * Checks if a ray intersects the bounding box within an interval of distances along the ray,
+     * using the slab method with the inverse direction cached in the ray.
+     *
+     * @param ray  the ray to test for intersection
+     * @param tMin the start of the interval
+     * @param tMax the end of the interval, e.g. the distance of the closest hit found so far
+     * @return true if the ray passes through the bounding box within the interval, false otherwise
+     */
+    public boolean hasIntersection(Ray ray, double tMin, double tMax) {
+        return entry(ray, tMin) <= exit(ray, tMax);
+    }
 
-            // No intersection if tMin > tMax
-            if (tMin > tMax) {
-                return false;
-            }
-        }
+    /**
+     * Calculate the distance along a ray where it enters the bounding box, with the slab method.<br>
+     * The ray enters each slab through the minimal coordinate, or the maximal one if it goes backwards;
+     * a ray parallel to a slab gets infinite distances, or NaN when it starts on the slab's face,
+     * and comparisons with NaN leave the distance as is.
+     *
+     * @param ray  the ray
+     * @param tMin the start of the interval of distances along the ray, e.g. 0 for its head
+     * @return the larger of the start and the distances where the ray enters the slabs of the box,
+     * the ray passes through the box if it is not beyond {@link #exit}
+     */
+    public double entry(Ray ray, double tMin) {
+        double near = ((ray.negativeX ? maxX : minX) - ray.originX) * ray.inverseX;
+        if (near > tMin) tMin = near;
+        near = ((ray.negativeY ? maxY : minY) - ray.originY) * ray.inverseY;
+        if (near > tMin) tMin = near;
+        near = ((ray.negativeZ ? maxZ : minZ) - ray.originZ) * ray.inverseZ;
+        if (near > tMin) tMin = near;
+        return tMin;
+    }
 
-        // Ray intersects all 3 slabs, so there's an intersection
-        return true;
+    /**
+     * Calculate the distance along a ray where it leaves the bounding box, with the slab method of {@link #entry}
+     *
+     * @param ray  the ray
+     * @param tMax the end of the interval of distances along the ray, e.g. the distance of the closest hit so far
+     * @return the smaller of the end and the distances where the ray leaves the slabs of the box
+     */
+    public double exit(Ray ray, double tMax) {
+        double far = ((ray.negativeX ? minX : maxX) - ray.originX) * ray.inverseX;
+        if (far < tMax) tMax = far;
+        far = ((ray.negativeY ? minY : maxY) - ray.originY) * ray.inverseY;
+        if (far < tMax) tMax = far;
+        far = ((ray.negativeZ ? minZ : maxZ) - ray.originZ) * ray.inverseZ;
+        if (far < tMax) tMax = far;
+        return tMax;
     }
 
     /**
@@ -128,9 +147,65 @@ public class BoundingBox {
         );
     }
 
+    /**
+     * Calculates the surface area of the bounding box.
+     *
+     * @return the surface area of the bounding box
+     */
+    public double surfaceArea() {
+        double dx = max.getX() - min.getX();
+        double dy = max.getY() - min.getY();
+        double dz = max.getZ() - min.getZ();
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Checks if another bounding box is entirely inside this bounding box.
+     *
+     * @param box the bounding box to check
+     * @return true if the other bounding box is inside this bounding box, false otherwise
+     */
+    public boolean contains(BoundingBox box) {
+        return box.min.getX() >= min.getX() && box.max.getX() <= max.getX()
+                && box.min.getY() >= min.getY() && box.max.getY() <= max.getY()
+                && box.min.getZ() >= min.getZ() && box.max.getZ() <= max.getZ();
+    }
+
+    /**
+     * Checks if a point is inside the bounding box or on its surface, up to the precision of {@link Util}.
+     *
+     * @param point the point to check
+     * @return true if the point is inside the bounding box, false otherwise
+     */
+    public boolean contains(Point point) {
+        return Util.alignZero(point.getX() - minX) >= 0 && Util.alignZero(maxX - point.getX()) >= 0
+                && Util.alignZero(point.getY() - minY) >= 0 && Util.alignZero(maxY - point.getY()) >= 0
+                && Util.alignZero(point.getZ() - minZ) >= 0 && Util.alignZero(maxZ - point.getZ()) >= 0;
+    }
+
+    /**
+     * Calculates the surface area of the intersection of this bounding box and another.
+     *
+     * @param box the other bounding box
+     * @return the surface area of the shared part of the bounding boxes, 0 if they don't overlap
+     */
+    public double overlapArea(BoundingBox box) {
+        double dx = Math.min(max.getX(), box.max.getX()) - Math.max(min.getX(), box.min.getX());
+        double dy = Math.min(max.getY(), box.max.getY()) - Math.max(min.getY(), box.min.getY());
+        double dz = Math.min(max.getZ(), box.max.getZ()) - Math.max(min.getZ(), box.min.getZ());
+        if (dx < 0 || dy < 0 || dz < 0) return 0;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Amount of geometries under which a subtree of the BVH is built on the current thread
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
     /**
      * Builds a bounding volume hierarchy (BVH) from a list of intersectable geometries.
-     * Uses a more efficient approach with surface area heuristic for better spatial partitioning.
+     * Each node is split at the median of the geometry centers along the axis where the centers spread the most.
+     * Subtrees of large scenes are built in parallel.
      *
      * @param intersectables the list of intersectable geometries
      * @return a list of intersectable geometries organized in a BVH
@@ -157,69 +232,170 @@ public class BoundingBox {
             return intersectables;
         }
 
-        // Find the axis with the greatest variance for most efficient splitting
-        int splitAxis = findSplitAxis(finiteGeometries);
+        // the centers are kept as x, y, z triplets next to the geometries and partitioned together with them
+        int size = finiteGeometries.size();
+        Intersectable[] geometries = finiteGeometries.toArray(new Intersectable[size]);
+        double[] centers = new double[3 * size];
+        for (int i = 0; i < size; i++) {
+            BoundingBox box = geometries[i].getBoundingBox();
+            centers[3 * i] = (box.min.getX() + box.max.getX()) * 0.5;
+            centers[3 * i + 1] = (box.min.getY() + box.max.getY()) * 0.5;
+            centers[3 * i + 2] = (box.min.getZ() + box.max.getZ()) * 0.5;
+        }
 
-        // Sort geometries along the chosen axis
-        finiteGeometries.sort((a, b) -> {
-            double centerA = a.getBoundingBox().getCenter().get(splitAxis);
-            double centerB = b.getBoundingBox().getCenter().get(splitAxis);
-            return Double.compare(centerA, centerB);
-        });
+        Geometries combined;
+        if (size == 1) {
+            combined = new Geometries(geometries[0]);
+            combined.setBVHBox(geometries[0].getBoundingBox());
+        } else {
+            BuildTask root = new BuildTask(geometries, centers, 0, size);
+            combined = (Geometries) (size < PARALLEL_THRESHOLD ? root.compute() : ForkJoinPool.commonPool().invoke(root));
+        }
 
-        // Split the list into two halves
-        int mid = finiteGeometries.size() / 2;
-        List<Intersectable> leftGeometries = buildBVH(new ArrayList<>(finiteGeometries.subList(0, mid)));
-        List<Intersectable> rightGeometries = buildBVH(new ArrayList<>(finiteGeometries.subList(mid, finiteGeometries.size())));
+        // Create the final result
+        List<Intersectable> result = new ArrayList<>(infiniteGeometries);
+        result.add(combined);
+        return result;
+    }
 
-        // Create bounding boxes for the left and right halves
-        BoundingBox leftBox = computeBoundingBox(leftGeometries);
-        BoundingBox rightBox = computeBoundingBox(rightGeometries);
+    /**
+     * Task building the BVH of a range of geometries, forking the building of the left subtree
+     * while the range is large enough
+     */
+    private static class BuildTask extends RecursiveTask<Intersectable> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // the task is Serializable as a RecursiveTask, but it is never serialized
+        private final transient Intersectable[] geometries;
+        private final transient double[] centers;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructor for BuildTask
+         *
+         * @param geometries the geometries, partitioned in place
+         * @param centers    the x, y, z centers of the geometries, partitioned together with them
+         * @param from       the first geometry of the range
+         * @param to         the end of the range (exclusive)
+         */
+        BuildTask(Intersectable[] geometries, double[] centers, int from, int to) {
+            this.geometries = geometries;
+            this.centers = centers;
+            this.from = from;
+            this.to = to;
+        }
 
-        // Combine the left and right geometries into a Geometries object
-        Geometries combined = new Geometries();
+        @Override
+        protected Intersectable compute() {
+            if (to - from < PARALLEL_THRESHOLD)
+                return build(geometries, centers, from, to);
 
-        // Add left geometries
-        for (Intersectable geo : leftGeometries) {
-            combined.add(geo);
+            int mid = split(geometries, centers, from, to);
+            BuildTask left = new BuildTask(geometries, centers, from, mid);
+            left.fork();
+            Intersectable right = new BuildTask(geometries, centers, mid, to).compute();
+            return node(left.join(), right);
         }
+    }
 
-        // Add right geometries
-        for (Intersectable geo : rightGeometries) {
-            combined.add(geo);
-        }
+    /**
+     * Build the BVH of a range of geometries on the current thread.
+     *
+     * @param geometries the geometries, partitioned in place
+     * @param centers    the x, y, z centers of the geometries, partitioned together with them
+     * @param from       the first geometry of the range
+     * @param to         the end of the range (exclusive)
+     * @return the geometry itself for a single geometry, otherwise the node of the range
+     */
+    private static Intersectable build(Intersectable[] geometries, double[] centers, int from, int to) {
+        if (to - from == 1) return geometries[from];
+        int mid = split(geometries, centers, from, to);
+        return node(build(geometries, centers, from, mid), build(geometries, centers, mid, to));
+    }
 
-        // Set the bounding box for the combined geometries
-        combined.box = leftBox != null && rightBox != null ?
-                leftBox.union(rightBox) :
-                (leftBox != null ? leftBox : rightBox);
+    /**
+     * Create a node of the BVH with two children.
+     *
+     * @param left  the left child
+     * @param right the right child
+     * @return the node, bounded by the boxes of its children
+     */
+    private static Geometries node(Intersectable left, Intersectable right) {
+        Geometries node = new Geometries(left, right);
+        node.setBVHBox(left.getBoundingBox().union(right.getBoundingBox()));
+        return node;
+    }
 
-        // Create the final result
-        List<Intersectable> result = new ArrayList<>(infiniteGeometries);
-        result.add(combined);
-        return result;
+    /**
+     * Partition a range of geometries around the median of their centers along the axis of the greatest spread,
+     * so the geometries before the median have centers which are not greater than the ones after it.
+     *
+     * @param geometries the geometries, partitioned in place
+     * @param centers    the x, y, z centers of the geometries, partitioned together with them
+     * @param from       the first geometry of the range
+     * @param to         the end of the range (exclusive)
+     * @return the index of the median, where the right half starts
+     */
+    private static int split(Intersectable[] geometries, double[] centers, int from, int to) {
+        int axis = findSplitAxis(centers, from, to);
+        int mid = from + (to - from) / 2;
+
+        // quickselect of the median
+        int left = from, right = to - 1;
+        while (left < right) {
+            double pivot = centers[3 * ((left + right) >>> 1) + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (centers[3 * i + axis] < pivot) i++;
+                while (centers[3 * j + axis] > pivot) j--;
+                if (i <= j) swap(geometries, centers, i++, j--);
+            }
+            if (mid <= j) right = j;
+            else if (mid >= i) left = i;
+            else break;
+        }
+        return mid;
+    }
+
+    /**
+     * Swap two geometries together with their centers.
+     *
+     * @param geometries the geometries
+     * @param centers    the x, y, z centers of the geometries
+     * @param i          the index of the first geometry
+     * @param j          the index of the second geometry
+     */
+    private static void swap(Intersectable[] geometries, double[] centers, int i, int j) {
+        Intersectable geometry = geometries[i];
+        geometries[i] = geometries[j];
+        geometries[j] = geometry;
+        for (int axis = 0; axis < 3; axis++) {
+            double center = centers[3 * i + axis];
+            centers[3 * i + axis] = centers[3 * j + axis];
+            centers[3 * j + axis] = center;
+        }
     }
 
     /**
      * Find the axis with the greatest variance for optimal splits.
      *
-     * @param geometries List of geometries
+     * @param centers the x, y, z centers of the geometries
+     * @param from    the first geometry of the range
+     * @param to      the end of the range (exclusive)
      * @return The axis index (0=X, 1=Y, 2=Z)
      */
-    private static int findSplitAxis(List<Intersectable> geometries) {
+    private static int findSplitAxis(double[] centers, int from, int to) {
         // Calculate centroid bounds for all geometries
         double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
         double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
         double minZ = Double.POSITIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
 
-        for (Intersectable geo : geometries) {
-            BoundingBox box = geo.getBoundingBox();
-            if (box == null) continue;
-
-            Point center = box.getCenter();
-            double x = center.getX();
-            double y = center.getY();
-            double z = center.getZ();
+        for (int i = 3 * from; i < 3 * to; i += 3) {
+            double x = centers[i];
+            double y = centers[i + 1];
+            double z = centers[i + 2];
 
             minX = Math.min(minX, x);
             maxX = Math.max(maxX, x);
@@ -243,33 +419,6 @@ public class BoundingBox {
         }
     }
 
-    /**
-     * Compute a bounding box that encloses all geometries in the list.
-     *
-     * @param geometries List of geometries
-     * @return The combined bounding box
-     */
-    private static BoundingBox computeBoundingBox(List<Intersectable> geometries) {
-        if (geometries == null || geometries.isEmpty()) {
-            return null;
-        }
-
-        BoundingBox result = null;
-
-        for (Intersectable geo : geometries) {
-            BoundingBox box = geo.getBoundingBox();
-            if (box == null) continue;
-
-            if (result == null) {
-                result = box;
-            } else {
-                result = result.union(box);
-            }
-        }
-
-        return result;
-    }
-
     /**
      * Extension method for the Point class to get a coordinate by index.
      *
@@ -0,0 +1,50 @@
+package geometries;
+
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class ClippedGeometry keeps the part of an unbounded geometry (e.g. a plane or a tube) inside a bounding box,
+ * so the geometry gets a bounding box and can join a bounding volume hierarchy instead of being tested
+ * against every ray. The intersections outside the box are dropped, so the box must hold
+ * all the visible parts of the geometry.
+ */
+public class ClippedGeometry extends Intersectable {
+    /**
+     * The clipped geometry
+     */
+    private final Intersectable geometry;
+
+    /**
+     * Constructor for a ClippedGeometry
+     *
+     * @param geometry the geometry to clip
+     * @param bounds   the box which the geometry is clipped to
+     */
+    public ClippedGeometry(Intersectable geometry, BoundingBox bounds) {
+        if (bounds == null) throw new IllegalArgumentException("bounds of a clipped geometry can't be null");
+        this.geometry = geometry;
+        this.box = bounds;
+    }
+
+    /**
+     * Getter for the clipped geometry
+     *
+     * @return the geometry
+     */
+    public Intersectable getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = geometry.findGeoIntersections(ray, maxDistance);
+        if (intersections == null) return null;
+        List<GeoPoint> inside = new ArrayList<>(intersections.size());
+        for (GeoPoint intersection : intersections)
+            if (box.contains(intersection.point)) inside.add(intersection);
+        return inside.isEmpty() ? null : inside;
+    }
+}
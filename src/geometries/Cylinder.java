@@ -5,10 +5,6 @@ import primitives.Ray;
 import primitives.Util;
 import primitives.Vector;
 
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-
 import static primitives.Util.alignZero;
 
 /**
@@ -17,6 +13,10 @@ import static primitives.Util.alignZero;
 public class Cylinder extends Tube {
     private final double height;
 
+    // the coordinates of the axis direction and of the center of the top base, cached for the intersection test
+    private final double dx, dy, dz;
+    private final double topX, topY, topZ;
+
     /**
      * Constructor for a Cylinder object receiving a Ray, a radius and a height.
      *
@@ -27,46 +27,43 @@ public class Cylinder extends Tube {
     public Cylinder(Ray axis, double radius, double height) {
         super(axis, radius);
         this.height = height;
+        Vector dir = axis.getDirection();
+        dx = dir.getX();
+        dy = dir.getY();
+        dz = dir.getZ();
+        Point top = axis.getPoint(height);
+        topX = top.getX();
+        topY = top.getY();
+        topZ = top.getZ();
         this.box = getBoundingBox();
     }
 
     /**
-     * Returns a bounding box for the cylinder.
-     * The bounding box is defined by the cylinder's radius and height.
+     * Returns a bounding box for the cylinder, for any orientation of its axis.
+     * The box holds the two bases, whose circles reach r * sqrt(1 - d^2) from their centers
+     * along each coordinate axis, where d is the coordinate of the cylinder's axis direction.
      *
      * @return the bounding box for the cylinder
      */
     @Override
     public BoundingBox getBoundingBox() {
-        // Get the axis direction and the starting point of the cylinder
+        // Get the axis direction and the centers of the bases
         Point p0 = axis.getPoint(0d);
         Vector dir = axis.getDirection();
-
-        // Define the minimum and maximum points for the bounding box
-        double minX = p0.getX() - radius;
-        double minY = p0.getY() - radius;
-        double minZ = p0.getZ();
-        double maxX = p0.getX() + radius;
-        double maxY = p0.getY() + radius;
-        double maxZ = p0.getZ() + height;
-
-        // Adjust the bounding box if the cylinder's axis is not aligned to the Z-axis.
-        // The bounding box should be parallel to the coordinate axes, so we must project the cylinder to these axes.
-        if (!Util.isZero(dir.getX())) {
-            minX = Math.min(minX, p0.getX() - radius);
-            maxX = Math.max(maxX, p0.getX() + radius);
-        }
-        if (!Util.isZero(dir.getY())) {
-            minY = Math.min(minY, p0.getY() - radius);
-            maxY = Math.max(maxY, p0.getY() + radius);
-        }
-        if (!Util.isZero(dir.getZ())) {
-            minZ = Math.min(minZ, p0.getZ());
-            maxZ = Math.max(maxZ, p0.getZ() + height);
-        }
-
-        // Return the bounding box
-        return new BoundingBox(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+        Point p1 = axis.getPoint(height);
+
+        // the extent of the bases' circles along each coordinate axis
+        double ex = radius * Math.sqrt(Math.max(0d, 1d - dir.getX() * dir.getX()));
+        double ey = radius * Math.sqrt(Math.max(0d, 1d - dir.getY() * dir.getY()));
+        double ez = radius * Math.sqrt(Math.max(0d, 1d - dir.getZ() * dir.getZ()));
+
+        return new BoundingBox(
+                new Point(Math.min(p0.getX(), p1.getX()) - ex,
+                        Math.min(p0.getY(), p1.getY()) - ey,
+                        Math.min(p0.getZ(), p1.getZ()) - ez),
+                new Point(Math.max(p0.getX(), p1.getX()) + ex,
+                        Math.max(p0.getY(), p1.getY()) + ey,
+                        Math.max(p0.getZ(), p1.getZ()) + ez));
     }
 
     @Override
@@ -94,69 +91,113 @@ public class Cylinder extends Tube {
     }
 
     @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        // Initialize intersections list
-        List<Point> intersections = new LinkedList<>();
-
-        // Find intersections with the infinite cylinder
-        Tube tube = new Tube(axis, radius);
-        List<Point> infiniteCylinderIntersections = tube.findIntersections(ray);
-        if (infiniteCylinderIntersections != null) {
-            intersections.addAll(infiniteCylinderIntersections);
-        }
-
-        // Remove intersections outside the cylinder height
-        Iterator<Point> iterator = intersections.iterator();
-        while (iterator.hasNext()) {
-            Point intersection = iterator.next();
-            double t = axis.getDirection().dotProduct(intersection.subtract(axis.getPoint(0d)));
-            if (t <= 0d || t >= height || alignZero(intersection.distanceSquared(ray.getPoint(0)) - maxDistance * maxDistance) > 0d) {
-                iterator.remove();
-            }
+    protected int intersectionDistances(Ray ray, double maxDistance, double[] distances) {
+        // the side and both bases are intersected in closed form on the cached coordinates of the axis and the ray
+        Vector v = ray.getDirection();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double ox = ray.originX, oy = ray.originY, oz = ray.originZ;
+        double maxDistanceSquared = maxDistance * maxDistance;
+
+        // intersections with the infinite tube, as in Tube
+        double px = ox - axis.originX, py = oy - axis.originY, pz = oz - axis.originZ;
+        double vAxisDot = vx * dx + vy * dy + vz * dz;
+        double deltaPAxisDot = px * dx + py * dy + pz * dz;
+        double a = (vx * vx + vy * vy + vz * vz) - vAxisDot * vAxisDot;
+        double b = 2 * ((vx * px + vy * py + vz * pz) - vAxisDot * deltaPAxisDot);
+        double c = (px * px + py * py + pz * pz) - deltaPAxisDot * deltaPAxisDot - radius * radius;
+        double discriminant = alignZero(b * b - 4 * a * c);
+
+        double side1 = Double.NaN, side2 = Double.NaN;
+        if (discriminant > 0) {
+            double sqrtDiscriminant = Math.sqrt(discriminant);
+            side1 = sideIntersection(ox, oy, oz, vx, vy, vz, alignZero((-b - sqrtDiscriminant) / (2d * a)),
+                    maxDistanceSquared);
+            side2 = sideIntersection(ox, oy, oz, vx, vy, vz, alignZero((-b + sqrtDiscriminant) / (2d * a)),
+                    maxDistanceSquared);
         }
+        boolean hasSide1 = !Double.isNaN(side1), hasSide2 = !Double.isNaN(side2);
 
-        // Define planes for the bottom and top bases
-        Plane bottomBase = new Plane(axis.getPoint(0d), axis.getDirection());
-        Plane topBase = new Plane(axis.getPoint(height), axis.getDirection());
-
-        // Return intersections if there are exactly 2 (so they are on the sides of the cylinder)
-        if (intersections.size() == 2) {
-            return List.of(new GeoPoint(this, intersections.get(0)), new GeoPoint(this, intersections.get(1)));
+        // two intersections on the side of the cylinder leave no room for the bases
+        if (hasSide1 && hasSide2) {
+            distances[0] = side1;
+            distances[1] = side2;
+            return 2;
         }
 
+        double bottom = baseIntersection(ox, oy, oz, vx, vy, vz, axis.originX, axis.originY, axis.originZ,
+                maxDistanceSquared);
+        double top = baseIntersection(ox, oy, oz, vx, vy, vz, topX, topY, topZ, maxDistanceSquared);
+        boolean hasBottom = !Double.isNaN(bottom), hasTop = !Double.isNaN(top);
+
+        // a ray along the side of the cylinder touches the rims of both bases only
+        if (hasBottom && hasTop && !hasSide1 && !hasSide2 && Util.isZero(a) && Util.isZero(c))
+            return 0;
+
+        int count = 0;
+        if (hasSide1) distances[count++] = side1;
+        if (hasSide2) distances[count++] = side2;
+        if (hasBottom) distances[count++] = bottom;
+        if (hasTop) distances[count++] = top;
+        return count;
+    }
 
-        // Find intersections with the bottom base
-        List<Point> bottomBaseIntersections = bottomBase.findIntersections(ray);
-        if (bottomBaseIntersections != null && alignZero(bottomBaseIntersections.getFirst().distanceSquared(ray.getPoint(0)) - maxDistance) <= 0d) {
-            Point intersection = bottomBaseIntersections.getFirst();
-            if (axis.getPoint(0d).distanceSquared(intersection) <= radius * radius) {
-                intersections.add(intersection);
-            }
-        }
-
-        // Find intersections with the top base
-        List<Point> topBaseIntersections = topBase.findIntersections(ray);
-        if (topBaseIntersections != null && alignZero(topBaseIntersections.getFirst().distanceSquared(ray.getPoint(0)) - maxDistance) <= 0d) {
-            Point intersection = topBaseIntersections.getFirst();
-            if (axis.getPoint(height).distanceSquared(intersection) <= radius * radius) {
-                intersections.add(intersection);
-            }
-        }
+    /**
+     * Check an intersection of a ray with the infinite tube of the cylinder
+     *
+     * @param ox                 the X coordinate of the ray head
+     * @param oy                 the Y coordinate of the ray head
+     * @param oz                 the Z coordinate of the ray head
+     * @param vx                 the X coordinate of the ray direction
+     * @param vy                 the Y coordinate of the ray direction
+     * @param vz                 the Z coordinate of the ray direction
+     * @param t                  the distance of the intersection along the ray
+     * @param maxDistanceSquared the squared maximum distance of intersections
+     * @return t if the intersection is in front of the ray, within the distance and between the bases,
+     * otherwise NaN
+     */
+    private double sideIntersection(double ox, double oy, double oz, double vx, double vy, double vz,
+                                    double t, double maxDistanceSquared) {
+        if (t <= 0d) return Double.NaN;
 
-        // if the ray is tangent to the cylinder
-        if (intersections.size() == 2 && axis.getPoint(0).distanceSquared(intersections.get(0)) == radius * radius &&
-                axis.getPoint(height).distanceSquared(intersections.get(1)) == radius * radius) {
-            Vector v = intersections.get(1).subtract(intersections.get(0));
-            if (v.normalize().equals(axis.getDirection()) || v.normalize().equals(axis.getDirection().scale(-1d)))
-                return null;
-        }
+        double x = ox + vx * t, y = oy + vy * t, z = oz + vz * t;
+        // the height of the point along the axis
+        double h = dx * (x - axis.originX) + dy * (y - axis.originY) + dz * (z - axis.originZ);
+        if (h <= 0d || h >= height) return Double.NaN;
 
-        // Return null if no valid intersections found
-        List<GeoPoint> geoPoints = new LinkedList<>();
-        for (Point p : intersections) {
-            geoPoints.add(new GeoPoint(this, p));
-        }
+        double ux = x - ox, uy = y - oy, uz = z - oz;
+        return alignZero(ux * ux + uy * uy + uz * uz - maxDistanceSquared) > 0d ? Double.NaN : t;
+    }
 
-        return geoPoints.isEmpty() ? null : geoPoints;
+    /**
+     * Intersect a ray with a base of the cylinder
+     *
+     * @param ox                 the X coordinate of the ray head
+     * @param oy                 the Y coordinate of the ray head
+     * @param oz                 the Z coordinate of the ray head
+     * @param vx                 the X coordinate of the ray direction
+     * @param vy                 the Y coordinate of the ray direction
+     * @param vz                 the Z coordinate of the ray direction
+     * @param cx                 the X coordinate of the center of the base
+     * @param cy                 the Y coordinate of the center of the base
+     * @param cz                 the Z coordinate of the center of the base
+     * @param maxDistanceSquared the squared maximum distance of intersections
+     * @return the distance of the intersection along the ray, or NaN if the ray misses the base
+     */
+    private double baseIntersection(double ox, double oy, double oz, double vx, double vy, double vz,
+                                    double cx, double cy, double cz, double maxDistanceSquared) {
+        double nd = vx * dx + vy * dy + vz * dz;
+        double ux = cx - ox, uy = cy - oy, uz = cz - oz;
+        // if the ray is parallel to the base or starts at its center
+        if (Util.isZero(nd) || (Util.isZero(ux) && Util.isZero(uy) && Util.isZero(uz)))
+            return Double.NaN;
+
+        double t = (dx * ux + dy * uy + dz * uz) / nd;
+        if (alignZero(t) <= 0d) return Double.NaN;
+
+        // the vector from the ray head to the point is t * v, and from the center to the point is t * v - u
+        double wx = vx * t, wy = vy * t, wz = vz * t;
+        if (alignZero(wx * wx + wy * wy + wz * wz - maxDistanceSquared) > 0d) return Double.NaN;
+        double rx = ox + wx - cx, ry = oy + wy - cy, rz = oz + wz - cz;
+        return rx * rx + ry * ry + rz * rz <= radius * radius ? t : Double.NaN;
     }
-}
\ No newline at end of file
+}
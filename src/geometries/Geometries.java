@@ -1,17 +1,46 @@
 package geometries;
 
-import primitives.Point;
 import primitives.Ray;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Geometries class represents a collection of geometries
  */
 public class Geometries extends Intersectable{
-    private final List<Intersectable> geometries = new LinkedList<>();
+    /**
+     * Growth of the surface area of a BVH node since it was built, above which the node is rebuilt
+     */
+    private static final double MAX_AREA_GROWTH = 2d;
+    /**
+     * Growth of the overlap between the children of a BVH node (relative to the node's surface area)
+     * since it was built, above which the node is rebuilt
+     */
+    private static final double MAX_OVERLAP_GROWTH = 0.25;
+
+    private final List<Intersectable> geometries = new ArrayList<>();
+    // the geometries as an array for the traversals, created when the collection is first traversed
+    // after it changed, so it is built once when the scene is frozen
+    private volatile Intersectable[] children = null;
+
+    // whether this collection is a node of a bounding volume hierarchy
+    private boolean bvhNode = false;
+    // surface area and children overlap of the node when it was built
+    private double buildArea;
+    private double buildOverlap;
+
+    // whether the rays tested against this collection are counted, see setStatistics
+    private boolean statistics = false;
+    // statistics of the rays tested against this collection, shared with the compiled copies of the collection
+    private LongAdder queries = new LongAdder();
+    private LongAdder unboundedTests = new LongAdder();
+    private LongAdder unboundedHits = new LongAdder();
 
     /**
      * Default constructor
@@ -36,6 +65,7 @@ public class Geometries extends Intersectable{
      */
     public void add(Intersectable... geometries) {
         this.geometries.addAll(Arrays.asList(geometries));
+        children = null;
     }
 
     /**
@@ -45,29 +75,481 @@ public class Geometries extends Intersectable{
      */
     public void add(List<Intersectable> geometries) {
         this.geometries.addAll(geometries);
+        children = null;
+    }
+
+    /**
+     * Get the geometries of the collection as an array, for iterating over them without iterators
+     *
+     * @return the geometries
+     */
+    private Intersectable[] children() {
+        Intersectable[] result = children;
+        if (result == null) children = result = geometries.toArray(new Intersectable[0]);
+        return result;
     }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        if (statistics) queries.increment();
         List<GeoPoint> intersections = null;
-        for (Intersectable geometry : geometries) {
-            List<GeoPoint> geometryIntersections = geometry.findGeoIntersectionsHelper(ray, maxDistance);
+        for (Intersectable geometry : children()) {
+            List<GeoPoint> geometryIntersections = geometry.findGeoIntersections(ray, maxDistance);
+            if (statistics) countUnbounded(geometry, geometryIntersections != null);
             if (geometryIntersections != null) {
                 if (intersections == null)
-                    intersections = new LinkedList<>();
+                    intersections = new ArrayList<>();
                 intersections.addAll(geometryIntersections);
             }
         }
         return intersections;
     }
 
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        if (statistics) queries.increment();
+        boolean found = false;
+        // makeBVH puts the unbounded geometries first, so their hits limit the search in the BVH
+        for (Intersectable geometry : children()) {
+            // geometries and BVH nodes beyond the closest hit so far are skipped by their bounding boxes
+            boolean closer = geometry.findClosestHit(ray, hit);
+            if (statistics) countUnbounded(geometry, closer);
+            found |= closer;
+        }
+        return found;
+    }
+
+    @Override
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        if (statistics) queries.increment();
+        for (Intersectable geometry : children()) {
+            boolean accepted = geometry.findAnyHit(ray, hit, accept);
+            if (statistics) countUnbounded(geometry, accepted);
+            if (accepted) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Counts a test of a ray against a child geometry if the geometry is unbounded,
+     * since unbounded geometries can't be skipped by a BVH and are tested against every ray
+     *
+     * @param geometry the child geometry
+     * @param hit      whether the ray hit the geometry
+     */
+    private void countUnbounded(Intersectable geometry, boolean hit) {
+        if (geometry.getBoundingBox() != null) return;
+        unboundedTests.increment();
+        if (hit) unboundedHits.increment();
+    }
+
+    /**
+     * Sets whether the rays tested against the collection, and the tests and hits of its unbounded geometries,
+     * are counted for {@link #getStatistics()}. Counting costs every ray an update of shared counters,
+     * so it is off by default.
+     *
+     * @param statistics true to count the rays
+     */
+    public void setStatistics(boolean statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Creates a report of the cost of the unbounded geometries (planes, tubes...) in the collection:
+     * the amount of rays tested against the collection, and the tests and hits of its unbounded geometries,
+     * counted while the statistics are on (see {@link #setStatistics(boolean)}).
+     *
+     * @return the report
+     */
+    public String getStatistics() {
+        List<Intersectable> leaves = new ArrayList<>();
+        collectLeaves(leaves);
+        long unbounded = leaves.stream().filter(geometry -> geometry.getBoundingBox() == null).count();
+        long rays = queries.sum();
+        long tests = unboundedTests.sum();
+        return String.format("geometries: %d bounded, %d unbounded%n"
+                        + "rays: %d%n"
+                        + "unbounded tests: %d (%.2f per ray), hits: %d",
+                leaves.size() - unbounded, unbounded, rays, tests,
+                rays == 0 ? 0d : (double) tests / rays, unboundedHits.sum());
+    }
+
+    /**
+     * Resets the statistics of the rays tested against the collection.
+     */
+    public void resetStatistics() {
+        queries.reset();
+        unboundedTests.reset();
+        unboundedHits.reset();
+    }
+
     /**
      * Creates a bounding volume hierarchy (BVH) for the geometries in the collection.
      * This method optimizes the intersection tests by organizing the geometries into a hierarchical structure.
      */
     public void makeBVH() {
-        List<Intersectable> intersectables = BoundingBox.buildBVH(geometries);
+        // buildBVH returns the given list itself when there is nothing to split
+        List<Intersectable> intersectables = BoundingBox.buildBVH(new ArrayList<>(geometries));
         geometries.clear();
         geometries.addAll(intersectables);
+        children = null;
+    }
+
+    /**
+     * Clips the unbounded geometries of the collection and of its nested collections to a bounding box,
+     * see {@link ClippedGeometry}, so a BVH built afterwards holds them instead of testing them against every ray.
+     * The parts of the geometries outside the box are removed from the scene.
+     *
+     * @param bounds the box holding the visible parts of the unbounded geometries
+     */
+    public void clipUnbounded(BoundingBox bounds) {
+        ListIterator<Intersectable> iterator = geometries.listIterator();
+        while (iterator.hasNext()) {
+            Intersectable child = iterator.next();
+            if (child instanceof Geometries collection)
+                collection.clipUnbounded(bounds);
+            else if (child.getBoundingBox() == null) {
+                iterator.set(new ClippedGeometry(child, bounds));
+                children = null;
+            }
+        }
+    }
+
+    /**
+     * Get the geometries of the collection, the children of the node for a BVH node
+     *
+     * @return a copy of the list of the geometries
+     */
+    List<Intersectable> getGeometries() {
+        return List.copyOf(geometries);
+    }
+
+    /**
+     * Creates a uniform grid for the bounded geometries in the collection, see {@link Grid}.
+     * The unbounded geometries are kept before the grid, so their hits limit the search in the grid.
+     */
+    public void makeGrid() {
+        accelerate(Grid::new);
+    }
+
+    /**
+     * Creates a k-d tree for the bounded geometries in the collection, see {@link KdTree}.
+     * The unbounded geometries are kept before the tree, so their hits limit the search in the tree.
+     */
+    public void makeKdTree() {
+        accelerate(KdTree::new);
+    }
+
+    /**
+     * Replaces the bounded geometries in the collection with an acceleration structure over them,
+     * after the unbounded geometries
+     *
+     * @param structure the constructor of the acceleration structure
+     */
+    private void accelerate(Function<List<Intersectable>, Intersectable> structure) {
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> intersectables = new ArrayList<>();
+        for (Intersectable geometry : geometries)
+            if (geometry.getBoundingBox() == null) intersectables.add(geometry);
+            else bounded.add(geometry);
+        if (bounded.size() <= 1) return;
+        intersectables.add(structure.apply(bounded));
+        geometries.clear();
+        geometries.addAll(intersectables);
+        children = null;
+    }
+
+    /**
+     * Creates a flattened copy of the collection for rendering: the geometries of the collection and of all
+     * its nested collections (and BVH nodes) in one new bounding volume hierarchy.
+     * The collection itself is not changed, and if its statistics are on, the rays traced against the copy
+     * are counted in them.
+     *
+     * @return the flattened collection
+     */
+    public Geometries compile() {
+        return compile(Acceleration.BVH);
+    }
+
+    /**
+     * Creates a flattened copy of the collection for rendering: the geometries of the collection and of all
+     * its nested collections (and BVH nodes) in one new acceleration structure.
+     * The collection itself is not changed, and if its statistics are on, the rays traced against the copy
+     * are counted in them.
+     *
+     * @param acceleration the acceleration structure of the copy
+     * @return the flattened collection
+     */
+    public Geometries compile(Acceleration acceleration) {
+        List<Intersectable> leaves = new ArrayList<>();
+        flatten(leaves);
+        Geometries compiled = new Geometries(leaves);
+        switch (acceleration) {
+            case BVH -> compiled.makeBVH();
+            case GRID -> compiled.makeGrid();
+            case KD_TREE -> compiled.makeKdTree();
+        }
+        compiled.statistics = statistics;
+        compiled.queries = queries;
+        compiled.unboundedTests = unboundedTests;
+        compiled.unboundedHits = unboundedHits;
+        return compiled;
+    }
+
+    /**
+     * Collects the geometries of the collection and of all its nested collections (and grids and k-d trees).
+     *
+     * @param leaves the list to add the geometries to
+     */
+    private void flatten(List<Intersectable> leaves) {
+        for (Intersectable child : geometries)
+            if (child instanceof Geometries collection)
+                collection.flatten(leaves);
+            else if (child instanceof Grid grid)
+                grid.collectGeometries(leaves);
+            else if (child instanceof KdTree tree)
+                tree.collectGeometries(leaves);
+            else
+                leaves.add(child);
+    }
+
+    /**
+     * Sets the bounding box of a node of a bounding volume hierarchy, remembering its quality
+     * for detecting when the node degrades after edits.
+     *
+     * @param box the bounding box of the node
+     */
+    void setBVHBox(BoundingBox box) {
+        this.box = box;
+        bvhNode = true;
+        buildArea = box == null ? 0 : box.surfaceArea();
+        buildOverlap = overlap();
+    }
+
+    /**
+     * Replaces a geometry in the collection or in its bounding volume hierarchy with another geometry,
+     * e.g. after the geometry moved. Only the bounding boxes on the path to the geometry are refitted,
+     * and the highest node on the path whose quality degraded too much is rebuilt.
+     * A grid or a k-d tree can't be refitted, the one holding the geometry is rebuilt.
+     *
+     * @param geometry    the geometry to replace
+     * @param replacement the geometry to put instead
+     * @return true if the geometry was found and replaced, false otherwise
+     */
+    public boolean replace(Intersectable geometry, Intersectable replacement) {
+        List<Geometries> path = new ArrayList<>();
+        // search first only in nodes which contain the geometry's bounding box
+        if (!findPath(geometry, path, true) && !findPath(geometry, path, false))
+            return false;
+
+        ListIterator<Intersectable> iterator = path.getLast().geometries.listIterator();
+        while (iterator.hasNext()) {
+            Intersectable child = iterator.next();
+            if (child == geometry || holds(child, geometry)) {
+                iterator.set(child == geometry ? replacement : restructure(child, geometry, replacement));
+                path.getLast().children = null;
+                break;
+            }
+        }
+
+        for (int i = path.size() - 1; i >= 0; i--)
+            path.get(i).refitBox();
+        for (Geometries node : path)
+            if (node.isDegraded()) {
+                node.rebuild();
+                break;
+            }
+        return true;
+    }
+
+    /**
+     * Refits the bounding boxes of the whole bounding volume hierarchy bottom-up, after the bounding boxes
+     * of geometries in it changed, and rebuilds the nodes whose quality degraded too much.
+     * The grids and k-d trees in the collection can't be refitted, they are rebuilt.
+     */
+    public void refit() {
+        refitBoxes();
+        rebuildDegraded();
+    }
+
+    /**
+     * Finds the path of BVH nodes from this collection to the collection holding a geometry.
+     *
+     * @param geometry the geometry to find
+     * @param path     the list to add the path to
+     * @param prune    whether to search only in nodes whose bounding box contains the geometry's bounding box
+     * @return true if the geometry was found, false otherwise
+     */
+    private boolean findPath(Intersectable geometry, List<Geometries> path, boolean prune) {
+        BoundingBox geometryBox = geometry.getBoundingBox();
+        path.add(this);
+        for (Intersectable child : geometries) {
+            if (child == geometry || holds(child, geometry)) return true;
+            if (child instanceof Geometries node && node.bvhNode
+                    && (!prune || node.box != null && geometryBox != null && node.box.contains(geometryBox))
+                    && node.findPath(geometry, path, prune))
+                return true;
+        }
+        path.removeLast();
+        return false;
+    }
+
+    /**
+     * Checks whether a child of the collection is a grid or a k-d tree which holds a geometry.
+     *
+     * @param child    the child
+     * @param geometry the geometry
+     * @return true if the child is a grid or a k-d tree and the geometry is one of its geometries, false otherwise
+     */
+    private static boolean holds(Intersectable child, Intersectable geometry) {
+        List<Intersectable> held = structureGeometries(child);
+        return held != null && held.stream().anyMatch(g -> g == geometry);
+    }
+
+    /**
+     * Gets the geometries of a child of the collection which is a grid or a k-d tree.
+     *
+     * @param child the child
+     * @return the geometries of the structure, or null if the child is neither a grid nor a k-d tree
+     */
+    private static List<Intersectable> structureGeometries(Intersectable child) {
+        List<Intersectable> held = new ArrayList<>();
+        if (child instanceof Grid grid) grid.collectGeometries(held);
+        else if (child instanceof KdTree tree) tree.collectGeometries(held);
+        else return null;
+        return held;
+    }
+
+    /**
+     * Builds a grid or a k-d tree again from its geometries, since they can't be updated in place.
+     *
+     * @param structure   the grid or the k-d tree
+     * @param geometry    a geometry of the structure to replace, or null to keep all its geometries
+     * @param replacement the geometry to put instead
+     * @return the new structure, of the same kind
+     */
+    private static Intersectable restructure(Intersectable structure, Intersectable geometry,
+                                             Intersectable replacement) {
+        List<Intersectable> held = structureGeometries(structure);
+        if (geometry != null) held.replaceAll(g -> g == geometry ? replacement : g);
+        return structure instanceof KdTree ? new KdTree(held) : new Grid(held);
+    }
+
+    /**
+     * Refits the bounding boxes of the BVH nodes in the collection, children before their parents,
+     * and rebuilds the grids and k-d trees in it.
+     */
+    private void refitBoxes() {
+        ListIterator<Intersectable> iterator = geometries.listIterator();
+        while (iterator.hasNext()) {
+            Intersectable child = iterator.next();
+            if (child instanceof Geometries node && node.bvhNode)
+                node.refitBoxes();
+            else if (structureGeometries(child) != null) {
+                iterator.set(restructure(child, null, null));
+                children = null;
+            }
+        }
+        refitBox();
+    }
+
+    /**
+     * Rebuilds the highest BVH nodes in the collection whose quality degraded too much.
+     */
+    private void rebuildDegraded() {
+        if (isDegraded()) {
+            rebuild();
+            return;
+        }
+        for (Intersectable child : geometries)
+            if (child instanceof Geometries node && node.bvhNode)
+                node.rebuildDegraded();
+    }
+
+    /**
+     * Sets the bounding box of a BVH node to the union of its children's bounding boxes.
+     * The box is null if one of the children is not bounded.
+     */
+    private void refitBox() {
+        if (!bvhNode) return;
+        BoundingBox result = null;
+        for (Intersectable child : geometries) {
+            BoundingBox childBox = child.getBoundingBox();
+            if (childBox == null) {
+                box = null;
+                return;
+            }
+            result = childBox.union(result);
+        }
+        box = result;
+    }
+
+    /**
+     * Calculates the surface area shared by the children of the node, relative to the node's surface area.
+     *
+     * @return the overlap of the children, 0 if the node has no area
+     */
+    private double overlap() {
+        if (box == null) return 0;
+        double area = box.surfaceArea();
+        if (area <= 0) return 0;
+
+        double shared = 0;
+        List<BoundingBox> boxes = new ArrayList<>();
+        for (Intersectable child : geometries)
+            if (child.getBoundingBox() != null) boxes.add(child.getBoundingBox());
+        for (int i = 0; i < boxes.size(); i++)
+            for (int j = i + 1; j < boxes.size(); j++)
+                shared += boxes.get(i).overlapArea(boxes.get(j));
+        return shared / area;
+    }
+
+    /**
+     * Checks whether the node grew or its children overlap too much compared to when it was built.
+     *
+     * @return true if the node should be rebuilt, false otherwise
+     */
+    private boolean isDegraded() {
+        if (!bvhNode || box == null) return false;
+        return box.surfaceArea() > buildArea * MAX_AREA_GROWTH
+                || overlap() > buildOverlap + MAX_OVERLAP_GROWTH;
+    }
+
+    /**
+     * Rebuilds the bounding volume hierarchy under this node from its leaf geometries.
+     */
+    private void rebuild() {
+        List<Intersectable> leaves = new ArrayList<>();
+        collectLeaves(leaves);
+        List<Intersectable> rebuilt = BoundingBox.buildBVH(leaves);
+
+        geometries.clear();
+        children = null;
+        if (rebuilt.size() == 1 && rebuilt.getFirst() instanceof Geometries node && node.bvhNode) {
+            // take over the children of the new root, since our parent refers to this node
+            geometries.addAll(node.geometries);
+            setBVHBox(node.box);
+        } else {
+            geometries.addAll(rebuilt);
+            refitBox();
+            setBVHBox(box);
+        }
+    }
+
+    /**
+     * Collects the geometries in the leaves of the BVH under this node (or in its grid or k-d tree).
+     *
+     * @param leaves the list to add the geometries to
+     */
+    private void collectLeaves(List<Intersectable> leaves) {
+        for (Intersectable child : geometries)
+            if (child instanceof Geometries node && node.bvhNode)
+                node.collectLeaves(leaves);
+            else if (child instanceof Grid grid)
+                grid.collectGeometries(leaves);
+            else if (child instanceof KdTree tree)
+                tree.collectGeometries(leaves);
+            else
+                leaves.add(child);
     }
 }
\ No newline at end of file
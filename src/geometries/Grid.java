@@ -0,0 +1,266 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Grid is a uniform grid of cubic-ish cells over bounded geometries, an alternative acceleration structure
+ * to the bounding volume hierarchy for scenes of many similar-sized geometries.<br>
+ * Each cell lists the geometries whose bounding boxes overlap it, and a ray visits the cells along its way
+ * in order (3D-DDA), so the closest-hit search ends at the first cell which holds a hit.
+ * A geometry in several cells is tested once per ray, by the mailbox of the thread.
+ */
+public class Grid extends Intersectable {
+    /**
+     * The amount of cells per geometry the resolution of the grid aims for
+     */
+    private static final double CELLS_PER_GEOMETRY = 2d;
+    /**
+     * The most cells along an axis
+     */
+    private static final int MAX_RESOLUTION = 128;
+
+    private final Intersectable[] geometries;
+    // the amount of cells along each axis and their size
+    private final int resX, resY, resZ;
+    private final double cellX, cellY, cellZ;
+    private final double minX, minY, minZ;
+    // the geometries of each cell - the indices of the geometries of cell c are items[start[c]..start[c + 1])
+    private final int[] start;
+    private final int[] items;
+
+    // the last ray each geometry was tested against, in each thread
+    private final ThreadLocal<Mailbox> mailboxes;
+
+    /**
+     * Constructor for Grid
+     *
+     * @param geometries the geometries, they must all be bounded
+     */
+    public Grid(List<Intersectable> geometries) {
+        this.geometries = geometries.toArray(new Intersectable[0]);
+        if (this.geometries.length == 0) throw new IllegalArgumentException("A grid must have geometries");
+        BoundingBox bounds = null;
+        for (Intersectable geometry : this.geometries) {
+            if (geometry.getBoundingBox() == null)
+                throw new IllegalArgumentException("A grid can't hold unbounded geometries");
+            bounds = geometry.getBoundingBox().union(bounds);
+        }
+        box = bounds;
+        minX = bounds.min.getX();
+        minY = bounds.min.getY();
+        minZ = bounds.min.getZ();
+
+        // the cells are about cubes of the size which gives the aimed amount of cells, a flat axis gets one cell
+        double sizeX = bounds.max.getX() - minX, sizeY = bounds.max.getY() - minY, sizeZ = bounds.max.getZ() - minZ;
+        double flat = Math.max(sizeX, Math.max(sizeY, sizeZ)) / MAX_RESOLUTION;
+        double extent = 1;
+        int dimensions = 0;
+        for (double size : new double[]{sizeX, sizeY, sizeZ})
+            if (size > flat) {
+                extent *= size;
+                dimensions++;
+            }
+        double perUnit = dimensions == 0 ? 0
+                : Math.pow(CELLS_PER_GEOMETRY * this.geometries.length / extent, 1d / dimensions);
+        resX = resolution(sizeX, flat, perUnit);
+        resY = resolution(sizeY, flat, perUnit);
+        resZ = resolution(sizeZ, flat, perUnit);
+        cellX = sizeX / resX;
+        cellY = sizeY / resY;
+        cellZ = sizeZ / resZ;
+
+        // the geometries are counted into their cells, and then listed in the ranges of the cells
+        int[][] ranges = new int[this.geometries.length][];
+        start = new int[resX * resY * resZ + 1];
+        for (int i = 0; i < this.geometries.length; i++) {
+            ranges[i] = cellRange(this.geometries[i].getBoundingBox());
+            forEachCell(ranges[i], cell -> start[cell + 1]++);
+        }
+        for (int cell = 0; cell < resX * resY * resZ; cell++)
+            start[cell + 1] += start[cell];
+        items = new int[start[resX * resY * resZ]];
+        int[] filled = Arrays.copyOf(start, start.length - 1);
+        for (int i = 0; i < this.geometries.length; i++) {
+            int geometry = i;
+            forEachCell(ranges[i], cell -> items[filled[cell]++] = geometry);
+        }
+
+        int size = this.geometries.length;
+        mailboxes = ThreadLocal.withInitial(() -> new Mailbox(size));
+    }
+
+    /**
+     * Calculate the amount of cells along an axis
+     *
+     * @param size    the size of the grid along the axis
+     * @param flat    the size up to which the axis is flat
+     * @param perUnit the amount of cells per unit of length
+     * @return the amount of cells
+     */
+    private static int resolution(double size, double flat, double perUnit) {
+        if (size <= flat) return 1;
+        return (int) Math.max(1, Math.min(MAX_RESOLUTION, Math.ceil(size * perUnit)));
+    }
+
+    /**
+     * Calculate the index of the cell of a coordinate along an axis
+     *
+     * @param coordinate the coordinate
+     * @param min        the minimal coordinate of the grid along the axis
+     * @param cell       the size of the cells along the axis
+     * @param resolution the amount of cells along the axis
+     * @return the index of the cell, clamped into the grid
+     */
+    private static int cell(double coordinate, double min, double cell, int resolution) {
+        if (cell <= 0) return 0;
+        return Math.max(0, Math.min(resolution - 1, (int) Math.floor((coordinate - min) / cell)));
+    }
+
+    /**
+     * Calculate the cells a bounding box overlaps
+     *
+     * @param box the bounding box
+     * @return the minimal and maximal cell indices along the X, Y and Z axes
+     */
+    private int[] cellRange(BoundingBox box) {
+        return new int[]{
+                cell(box.min.getX(), minX, cellX, resX), cell(box.max.getX(), minX, cellX, resX),
+                cell(box.min.getY(), minY, cellY, resY), cell(box.max.getY(), minY, cellY, resY),
+                cell(box.min.getZ(), minZ, cellZ, resZ), cell(box.max.getZ(), minZ, cellZ, resZ)};
+    }
+
+    /**
+     * Apply an action to the indices of the cells in a range
+     *
+     * @param range  the range, as calculated by {@link #cellRange(BoundingBox)}
+     * @param action the action
+     */
+    private void forEachCell(int[] range, IntConsumer action) {
+        for (int z = range[4]; z <= range[5]; z++)
+            for (int y = range[2]; y <= range[3]; y++)
+                for (int x = range[0]; x <= range[1]; x++)
+                    action.accept((z * resY + y) * resX + x);
+    }
+
+    /**
+     * Getter for the amount of cells along each axis
+     *
+     * @return the amounts of cells along the X, Y and Z axes
+     */
+    public int[] getResolution() {
+        return new int[]{resX, resY, resZ};
+    }
+
+    /**
+     * Collects the geometries of the grid
+     *
+     * @param leaves the list to add the geometries to
+     */
+    void collectGeometries(List<Intersectable> leaves) {
+        leaves.addAll(Arrays.asList(geometries));
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = null;
+        for (Intersectable geometry : geometries) {
+            List<GeoPoint> geometryIntersections = geometry.findGeoIntersections(ray, maxDistance);
+            if (geometryIntersections != null) {
+                if (intersections == null) intersections = new ArrayList<>();
+                intersections.addAll(geometryIntersections);
+            }
+        }
+        return intersections;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        return traverse(ray, hit, null);
+    }
+
+    @Override
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        return traverse(ray, hit, accept);
+    }
+
+    /**
+     * Visit the cells along a ray in order, testing the geometries in them
+     *
+     * @param ray    the ray
+     * @param hit    the record of the intersection
+     * @param accept the filter of an any-hit query, or null for a closest-hit query
+     * @return for a closest-hit query - whether a closer intersection was recorded,
+     * for an any-hit query - whether an intersection was accepted
+     */
+    private boolean traverse(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        Point head = ray.getPoint(0);
+        Vector direction = ray.getDirection();
+        double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+
+        // the part of the ray inside the bounds of the grid
+        double enter = box.entry(ray, 0), exit = box.exit(ray, accept == null ? hit.t : hit.maxDistance);
+        if (enter > exit) return false;
+
+        int x = cell(head.getX() + dx * enter, minX, cellX, resX);
+        int y = cell(head.getY() + dy * enter, minY, cellY, resY);
+        int z = cell(head.getZ() + dz * enter, minZ, cellZ, resZ);
+        int stepX = dx > 0 ? 1 : -1, stepY = dy > 0 ? 1 : -1, stepZ = dz > 0 ? 1 : -1;
+        // the distances of the next cell boundary along each axis, and between the boundaries
+        double nextX = boundary(head.getX(), dx, minX, cellX, x), deltaX = dx == 0 ? 0 : cellX / Math.abs(dx);
+        double nextY = boundary(head.getY(), dy, minY, cellY, y), deltaY = dy == 0 ? 0 : cellY / Math.abs(dy);
+        double nextZ = boundary(head.getZ(), dz, minZ, cellZ, z), deltaZ = dz == 0 ? 0 : cellZ / Math.abs(dz);
+
+        Mailbox mailbox = mailboxes.get();
+        mailbox.next();
+        boolean found = false;
+        while (true) {
+            int cell = (z * resY + y) * resX + x;
+            for (int i = start[cell]; i < start[cell + 1]; i++) {
+                int geometry = items[i];
+                if (!mailbox.visit(geometry)) continue;
+                if (accept == null) found |= geometries[geometry].findClosestHit(ray, hit);
+                else if (geometries[geometry].findAnyHit(ray, hit, accept)) return true;
+            }
+
+            // a hit inside the cell is closer than anything in the next cells
+            double leave = Math.min(nextX, Math.min(nextY, nextZ));
+            if (leave >= (accept == null ? Math.min(hit.t, exit) : exit)) return found;
+            if (nextX == leave) {
+                x += stepX;
+                if (x < 0 || x >= resX) return found;
+                nextX += deltaX;
+            } else if (nextY == leave) {
+                y += stepY;
+                if (y < 0 || y >= resY) return found;
+                nextY += deltaY;
+            } else {
+                z += stepZ;
+                if (z < 0 || z >= resZ) return found;
+                nextZ += deltaZ;
+            }
+        }
+    }
+
+    /**
+     * Calculate the distance along a ray of the boundary of its cell it crosses next along an axis
+     *
+     * @param origin    the coordinate of the head of the ray
+     * @param direction the coordinate of the direction of the ray
+     * @param min       the minimal coordinate of the grid
+     * @param cell      the size of the cells
+     * @param index     the index of the cell of the ray
+     * @return the distance, positive infinity if the ray is parallel to the axis
+     */
+    private static double boundary(double origin, double direction, double min, double cell, int index) {
+        if (direction == 0) return Double.POSITIVE_INFINITY;
+        return (min + (direction > 0 ? index + 1 : index) * cell - origin) / direction;
+    }
+}
@@ -0,0 +1,179 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static primitives.Util.alignZero;
+
+/**
+ * HitRecord is a mutable record of an intersection of a ray, which the geometries fill in place of
+ * allocating GeoPoint objects and lists - so the rendering path allocates nothing per intersection test.<br>
+ * Each thread has its own record for the queries which don't pass one, see {@link #get(Ray, double)}.
+ * The point and the normal of the intersection are calculated only when they are asked for.<br>
+ * A geometry hit through an {@link Instance} is recorded as the shared geometry together with the instance,
+ * with no object per instanced hit.
+ */
+public class HitRecord {
+    private static final ThreadLocal<HitRecord> RECORDS = ThreadLocal.withInitial(HitRecord::new);
+
+    /**
+     * The distance of the intersection from the head of the ray,
+     * or the maximum distance while no intersection was recorded
+     */
+    public double t;
+    /**
+     * The maximum distance of the intersections of the query
+     */
+    public double maxDistance;
+    /**
+     * The intersected geometry, null while no intersection was recorded
+     */
+    public Geometry geometry;
+    /**
+     * The instance through which the geometry was hit, null for a geometry hit directly.
+     * The geometry is then the shared geometry of the instance, in the instance's object space.
+     */
+    public Instance instance;
+    /**
+     * The barycentric coordinates of the intersection on a triangle (relative to its 2nd and 3rd vertices)
+     */
+    public double u, v;
+
+    /**
+     * Scratch space of the geometries with several intersections (up to the 4 of a cylinder),
+     * for collecting their candidate distances without allocations
+     */
+    final double[] distances = new double[4];
+
+    private Ray ray;
+    private Point point;
+    private Vector normal;
+
+    /**
+     * Get the record of the current thread, reset for a new query.<br>
+     * The record is reused by the next query of the thread, so it must not be kept across queries.
+     *
+     * @param ray         the ray of the query
+     * @param maxDistance the maximum distance of the intersections
+     * @return the record of the current thread
+     */
+    public static HitRecord get(Ray ray, double maxDistance) {
+        return RECORDS.get().reset(ray, maxDistance);
+    }
+
+    /**
+     * Reset the record for a new query
+     *
+     * @param ray         the ray of the query
+     * @param maxDistance the maximum distance of the intersections
+     * @return the record
+     */
+    public HitRecord reset(Ray ray, double maxDistance) {
+        this.ray = ray;
+        this.maxDistance = maxDistance;
+        t = maxDistance;
+        geometry = null;
+        instance = null;
+        clear();
+        return this;
+    }
+
+    /**
+     * Offer an intersection for a closest-hit query - it is recorded if it is closer than the recorded one.
+     * The first intersection is compared to the maximum distance with the tolerance of the geometries' tests.
+     *
+     * @param t        the distance of the intersection from the head of the ray
+     * @param geometry the intersected geometry
+     * @return true if the intersection was recorded, false otherwise
+     */
+    public boolean offer(double t, Geometry geometry) {
+        if (this.geometry == null ? alignZero(t - this.t) > 0d : t >= this.t) return false;
+        set(t, geometry);
+        return true;
+    }
+
+    /**
+     * Record an intersection unconditionally, e.g. a candidate of an any-hit query
+     *
+     * @param t        the distance of the intersection from the head of the ray
+     * @param geometry the intersected geometry
+     */
+    public void set(double t, Geometry geometry) {
+        this.t = t;
+        this.geometry = geometry;
+        instance = null;
+        clear();
+    }
+
+    /**
+     * Clear the barycentric coordinates and the cached point and normal of the previous intersection
+     */
+    private void clear() {
+        u = v = 0;
+        point = null;
+        normal = null;
+    }
+
+    /**
+     * Get the point of the recorded intersection
+     *
+     * @return the point on the ray of the query
+     */
+    public Point getPoint() {
+        if (point == null) point = ray.getPoint(t);
+        return point;
+    }
+
+    /**
+     * Get the normal of the geometry at the recorded intersection
+     *
+     * @return the normal
+     */
+    public Vector getNormal() {
+        if (normal == null)
+            normal = instance == null ? geometry.getNormal(getPoint()) : instance.getNormal(geometry, getPoint());
+        return normal;
+    }
+
+    /**
+     * Get the material of the geometry at the recorded intersection
+     *
+     * @return the material, the instance's if it replaces the material of the shared geometry
+     */
+    public Material getMaterial() {
+        return instance == null ? geometry.getMaterial() : instance.getMaterial(geometry);
+    }
+
+    /**
+     * Get the intersected geometry as it is placed in the scene, e.g. for intersecting it again
+     *
+     * @return the geometry, or the instance through which it was hit
+     */
+    public Intersectable getSceneGeometry() {
+        return instance == null ? geometry : instance;
+    }
+
+    /**
+     * Get the intersected geometry alone as it is placed in the scene, e.g. for intersecting it again by itself.
+     * A geometry hit through an instance is given as a view of the shared geometry through the instance.
+     *
+     * @return the geometry
+     */
+    public Geometry getPlacedGeometry() {
+        return instance == null ? geometry : instance.instanced(geometry);
+    }
+
+    /**
+     * Create a GeoPoint of the recorded intersection, for the callers which keep it beyond the query.
+     * A geometry hit through an instance is given as a view of the shared geometry through the instance.
+     * The normal is passed on if it was already calculated.
+     *
+     * @return the GeoPoint
+     */
+    public GeoPoint toGeoPoint() {
+        return new GeoPoint(getPlacedGeometry(), getPoint(), normal);
+    }
+}
@@ -0,0 +1,252 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Class Instance places a shared geometry (e.g. a mesh) in the scene with an affine transformation.<br>
+ * Many instances can refer to the same geometry, so the memory of the scene grows with the amount
+ * of unique geometries and not with the amount of their copies. Rays are transformed into the space
+ * of the shared geometry, and the intersections are transformed back to the scene.
+ */
+public class Instance extends Intersectable {
+    /**
+     * The shared geometry, in its own (object) space
+     */
+    private final Intersectable geometry;
+    /**
+     * The transformation from the object space to the scene
+     */
+    private final Transform transform;
+    /**
+     * The transformation from the scene to the object space
+     */
+    private final Transform inverse;
+
+    private Material material = null; // replaces the material of the shared geometry if set
+    private Color emission = null; // replaces the emission of the shared geometry if set
+
+    /**
+     * Constructor for an Instance
+     *
+     * @param geometry  the shared geometry
+     * @param transform the transformation from the geometry's space to the scene
+     */
+    public Instance(Intersectable geometry, Transform transform) {
+        this.geometry = geometry;
+        this.transform = transform;
+        this.inverse = transform.inverse();
+        this.box = getBoundingBox(geometry.getBoundingBox());
+    }
+
+    /**
+     * Set a material for this instance instead of the material of the shared geometry
+     *
+     * @param material the material of the instance
+     * @return the instance
+     */
+    public Instance setMaterial(Material material) {
+        this.material = material;
+        return this;
+    }
+
+    /**
+     * Set an emission color for this instance instead of the emission of the shared geometry
+     *
+     * @param emission the emission color of the instance
+     * @return the instance
+     */
+    public Instance setEmission(Color emission) {
+        this.emission = emission;
+        return this;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        return findInstancedIntersections(geometry, ray, maxDistance);
+    }
+
+    /**
+     * Find the intersections of a ray with a part of the shared geometry, as seen through this instance
+     *
+     * @param shared      the shared geometry or a geometry in it
+     * @param ray         the ray in the scene
+     * @param maxDistance the maximum distance of the intersections in the scene
+     * @return the intersections in the scene, or null if there are none
+     */
+    private List<GeoPoint> findInstancedIntersections(Intersectable shared, Ray ray, double maxDistance) {
+        Ray objectRay = inverse.apply(ray);
+        // the transformation stretches distances along the ray by the same factor everywhere
+        double stretch = transform.applyVector(objectRay.getDirection()).length();
+        List<GeoPoint> intersections = shared.findGeoIntersections(objectRay, maxDistance / stretch);
+        if (intersections == null) return null;
+
+        List<GeoPoint> result = new ArrayList<>(intersections.size());
+        for (GeoPoint gp : intersections)
+            result.add(new GeoPoint(instanced(gp.geometry), transform.apply(gp.point)));
+        return result;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        Ray objectRay = inverse.apply(ray);
+        double stretch = transform.applyVector(objectRay.getDirection()).length();
+        // the record holds distances along the object ray while the shared geometry is intersected
+        double t = hit.t;
+        hit.t = t / stretch;
+        if (!geometry.findClosestHit(objectRay, hit)) {
+            hit.t = t;
+            return false;
+        }
+        hit.t *= stretch;
+        enter(hit);
+        return true;
+    }
+
+    @Override
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        Ray objectRay = inverse.apply(ray);
+        double stretch = transform.applyVector(objectRay.getDirection()).length();
+        double maxDistance = hit.maxDistance;
+        hit.maxDistance = maxDistance / stretch;
+        // the candidates are passed to the filter as intersections of the instance in the scene
+        boolean accepted = geometry.findAnyHit(objectRay, hit, candidate -> {
+            candidate.t *= stretch;
+            enter(candidate);
+            return accept.test(candidate);
+        });
+        hit.maxDistance = maxDistance;
+        return accepted;
+    }
+
+    /**
+     * Record that the geometry in a hit record was hit through this instance. A geometry hit through
+     * a nested instance is first replaced by its view through the nested instance.
+     *
+     * @param hit the hit record of the shared geometry
+     */
+    private void enter(HitRecord hit) {
+        if (hit.instance != null) hit.geometry = hit.instance.instanced(hit.geometry);
+        hit.instance = this;
+    }
+
+    /**
+     * Create a view of a geometry of the shared geometry as seen through this instance
+     *
+     * @param geometry the geometry in the object space
+     * @return the geometry in the scene
+     */
+    Geometry instanced(Geometry geometry) {
+        return new InstancedGeometry(geometry);
+    }
+
+    /**
+     * Calculate the normal of a geometry of the shared geometry at a point, both in the scene
+     *
+     * @param geometry the geometry in the object space
+     * @param point    the point in the scene
+     * @return the normal in the scene
+     */
+    Vector getNormal(Geometry geometry, Point point) {
+        return transform.applyNormal(geometry.getNormal(inverse.apply(point)));
+    }
+
+    /**
+     * Get the material of a geometry of the shared geometry as seen through this instance
+     *
+     * @param geometry the geometry in the object space
+     * @return the material of the instance if it is set, the material of the geometry otherwise
+     */
+    Material getMaterial(Geometry geometry) {
+        return material == null ? geometry.getMaterial() : material;
+    }
+
+    /**
+     * Calculate the bounding box of the instance from the bounding box of the shared geometry
+     *
+     * @param objectBox the bounding box of the shared geometry
+     * @return the bounding box of the transformed corners, or null if the shared geometry is not bounded
+     */
+    private BoundingBox getBoundingBox(BoundingBox objectBox) {
+        if (objectBox == null) return null;
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int corner = 0; corner < 8; corner++) {
+            Point p = transform.apply(new Point(
+                    (corner & 1) == 0 ? objectBox.min.getX() : objectBox.max.getX(),
+                    (corner & 2) == 0 ? objectBox.min.getY() : objectBox.max.getY(),
+                    (corner & 4) == 0 ? objectBox.min.getZ() : objectBox.max.getZ()));
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new BoundingBox(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+    }
+
+    /**
+     * A geometry of the shared geometry as seen through this instance -
+     * its normals are transformed to the scene and its material may be replaced by the instance's
+     */
+    private class InstancedGeometry extends Geometry {
+        private final Geometry geometry;
+
+        /**
+         * Constructor for InstancedGeometry
+         *
+         * @param geometry the geometry in the object space
+         */
+        InstancedGeometry(Geometry geometry) {
+            this.geometry = geometry;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return Instance.this.getNormal(geometry, point);
+        }
+
+        @Override
+        public Color getEmission() {
+            // the emission field of the instance is hidden by the inherited one of Geometry
+            return Instance.this.emission == null ? geometry.getEmission() : Instance.this.emission;
+        }
+
+        @Override
+        public Material getMaterial() {
+            return Instance.this.getMaterial(geometry);
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            // the geometry is intersected by itself, e.g. as the cached occluder of a shadow ray
+            return findInstancedIntersections(geometry, ray, maxDistance);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            return obj instanceof InstancedGeometry other
+                    && instance() == other.instance() && geometry.equals(other.geometry);
+        }
+
+        @Override
+        public int hashCode() {
+            return geometry.hashCode();
+        }
+
+        /**
+         * Getter for the instance of the geometry
+         *
+         * @return the instance
+         */
+        private Instance instance() {
+            return Instance.this;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package geometries;
 import primitives.Point;
 import primitives.Ray;
+import primitives.Vector;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Interface Intersectable is the basic interface for all geometries in the scene
@@ -26,6 +28,8 @@ public abstract class Intersectable {
     public static class GeoPoint {
         public Geometry geometry;
         public Point point;
+        // the normal of the geometry at the point, calculated once for all the effects of the point
+        private Vector normal;
 
         /**
          * Constructor for GeoPoint
@@ -37,6 +41,26 @@ public abstract class Intersectable {
             this.point = point;
         }
 
+        /**
+         * Constructor for GeoPoint with the normal at the point, when it is already known
+         * @param geometry the geometry
+         * @param point the point
+         * @param normal the normal of the geometry at the point, or null to calculate it when asked for
+         */
+        GeoPoint(Geometry geometry, Point point, Vector normal) {
+            this(geometry, point);
+            this.normal = normal;
+        }
+
+        /**
+         * Get the normal of the geometry at the point, calculated on the first call
+         * @return the normal
+         */
+        public Vector getNormal() {
+            if (normal == null) normal = geometry.getNormal(point);
+            return normal;
+        }
+
         @Override
         public boolean equals(Object obj) {
             if (this == obj) return true;
@@ -67,7 +91,7 @@ public abstract class Intersectable {
      */
     public final List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance){
         // Checks if the object's bounding box exists and if the ray intersects with it
-        if (box != null && !box.hasIntersection(ray)) {
+        if (box != null && !box.hasIntersection(ray, 0, maxDistance)) {
             return null; // No intersections if the bounding box check fails
         }
         // If the bounding box check passes, proceed to find intersections
@@ -82,6 +106,105 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * Find the closest intersection of a ray with the geometry
+     * @param ray the ray to find the intersection with
+     * @return the closest intersection point, or null if there is none
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray){
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Find the closest intersection of a ray with the geometry
+     * @param ray the ray to find the intersection with
+     * @param maxDistance the maximum distance to find the intersection
+     * @return the closest intersection point, or null if there is none
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance){
+        HitRecord hit = HitRecord.get(ray, maxDistance);
+        return findClosestHit(ray, hit) ? hit.toGeoPoint() : null;
+    }
+
+    /**
+     * Find the closest intersection of a ray with the geometry, which is closer than the intersection
+     * already recorded (or than the maximum distance of the record if there is none)
+     * @param ray the ray to find the intersection with
+     * @param hit the record of the closest intersection, updated if a closer one is found
+     * @return true if a closer intersection was recorded, false otherwise
+     */
+    public final boolean findClosestHit(Ray ray, HitRecord hit){
+        if (box != null && !box.hasIntersection(ray, 0, hit.t)) {
+            return false;
+        }
+        return findClosestHitHelper(ray, hit);
+    }
+
+    /**
+     * Find the closest intersection of a ray with the geometry, by default the closest of all its intersections
+     * @param ray the ray to find the intersection with
+     * @param hit the record of the closest intersection, updated if a closer one is found
+     * @return true if a closer intersection was recorded, false otherwise
+     */
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, hit.t);
+        if (intersections == null) return false;
+        Point head = ray.getPoint(0);
+        boolean found = false;
+        for (GeoPoint intersection : intersections)
+            found |= hit.offer(head.distance(intersection.point), intersection.geometry);
+        return found;
+    }
+
+    /**
+     * Find any intersection of a ray with the geometry which is accepted by a filter.<br>
+     * The intersections are passed to the filter in no particular order, and the search stops
+     * at the first accepted one - e.g. an opaque geometry blocking a shadow ray.
+     * @param ray the ray to find the intersection with
+     * @param maxDistance the maximum distance to find the intersection
+     * @param accept the filter of the intersections, it may also collect the intersections it rejects
+     * @return the accepted intersection point, or null if there is none
+     */
+    public final GeoPoint findAnyGeoIntersection(Ray ray, double maxDistance, Predicate<GeoPoint> accept){
+        HitRecord hit = HitRecord.get(ray, maxDistance);
+        return findAnyHit(ray, hit, candidate -> accept.test(candidate.toGeoPoint())) ? hit.toGeoPoint() : null;
+    }
+
+    /**
+     * Find any intersection of a ray with the geometry within the maximum distance of a record,
+     * which is accepted by a filter. Each candidate intersection is set in the record before it is
+     * passed to the filter, and the search stops at the first accepted one.
+     * @param ray the ray to find the intersection with
+     * @param hit the record of the candidate intersections
+     * @param accept the filter of the intersections, it may also collect the intersections it rejects
+     * @return true if an intersection was accepted (and left in the record), false otherwise
+     */
+    public final boolean findAnyHit(Ray ray, HitRecord hit, Predicate<HitRecord> accept){
+        if (box != null && !box.hasIntersection(ray, 0, hit.maxDistance)) {
+            return false;
+        }
+        return findAnyHitHelper(ray, hit, accept);
+    }
+
+    /**
+     * Find any intersection of a ray with the geometry which is accepted by a filter,
+     * by default the first accepted of all its intersections
+     * @param ray the ray to find the intersection with
+     * @param hit the record of the candidate intersections
+     * @param accept the filter of the intersections
+     * @return true if an intersection was accepted (and left in the record), false otherwise
+     */
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, hit.maxDistance);
+        if (intersections == null) return false;
+        Point head = ray.getPoint(0);
+        for (GeoPoint intersection : intersections) {
+            hit.set(head.distance(intersection.point), intersection.geometry);
+            if (accept.test(hit)) return true;
+        }
+        return false;
+    }
+
     /**
      * Find intersections of a ray with the geometry
      * @param ray the ray to find intersections with
@@ -0,0 +1,364 @@
+package geometries;
+
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * KdTree is a k-d tree over bounded geometries, an alternative acceleration structure to the bounding volume
+ * hierarchy for static scenes of many triangles.<br>
+ * Each node splits space by an axis-aligned plane chosen by the surface area heuristic (SAH): the plane which
+ * minimizes the expected cost of the intersection tests of a ray, weighing each side by the probability of a
+ * ray crossing it (its surface area) and the amount of geometries in it. A geometry crossing the plane is
+ * referenced from both sides.<br>
+ * The nodes are kept in flat arrays, each node followed by its child below the plane, and a ray visits the
+ * leaves along its way in order with a stack of the far children, so the closest-hit search ends at the first
+ * leaf which holds a hit. A geometry in several leaves is tested once per ray, by the mailbox of the thread.
+ */
+public class KdTree extends Intersectable {
+    /**
+     * The cost of traversing a node, relative to the cost of an intersection test
+     */
+    private static final double TRAVERSAL_COST = 1d;
+    /**
+     * The cost of an intersection test
+     */
+    private static final double INTERSECTION_COST = 1.5;
+    /**
+     * The discount of the cost of a split which cuts off empty space
+     */
+    private static final double EMPTY_BONUS = 0.8;
+    /**
+     * The most geometries in a leaf which is never split
+     */
+    private static final int MAX_LEAF_SIZE = 2;
+    /**
+     * The axis of a leaf node
+     */
+    private static final int LEAF = 3;
+
+    private final Intersectable[] geometries;
+    // the bounds of the geometries along each axis, the 3 minima and then the 3 maxima of geometry i at 6 * i
+    private final double[] bounds;
+    private final int maxDepth;
+
+    // the nodes: the axis of the split plane (or LEAF), its coordinate, and the index of the child above
+    // the plane (the child below is the next node) - or for a leaf, the range of its geometries in items
+    private int[] axes = new int[16];
+    private double[] splits = new double[16];
+    private int[] links = new int[16];
+    private int[] counts = new int[16];
+    private int nodes = 0;
+    private int[] items = new int[16];
+    private int itemCount = 0;
+
+    // the stack of the far children and the mailbox of each thread
+    private final ThreadLocal<Traversal> traversals;
+
+    /**
+     * Constructor for KdTree
+     *
+     * @param geometries the geometries, they must all be bounded
+     */
+    public KdTree(List<Intersectable> geometries) {
+        this.geometries = geometries.toArray(new Intersectable[0]);
+        int size = this.geometries.length;
+        if (size == 0) throw new IllegalArgumentException("A k-d tree must have geometries");
+        bounds = new double[6 * size];
+        BoundingBox union = null;
+        for (int i = 0; i < size; i++) {
+            BoundingBox geometryBox = this.geometries[i].getBoundingBox();
+            if (geometryBox == null)
+                throw new IllegalArgumentException("A k-d tree can't hold unbounded geometries");
+            union = geometryBox.union(union);
+            for (int axis = 0; axis < 3; axis++) {
+                bounds[6 * i + axis] = geometryBox.min.get(axis);
+                bounds[6 * i + 3 + axis] = geometryBox.max.get(axis);
+            }
+        }
+        box = union;
+
+        maxDepth = (int) Math.round(8 + 1.3 * Math.log(size) / Math.log(2));
+        int[] all = new int[size];
+        for (int i = 0; i < size; i++) all[i] = i;
+        double[] low = {union.min.getX(), union.min.getY(), union.min.getZ()};
+        double[] high = {union.max.getX(), union.max.getY(), union.max.getZ()};
+        build(all, low, high, 0);
+
+        axes = Arrays.copyOf(axes, nodes);
+        splits = Arrays.copyOf(splits, nodes);
+        links = Arrays.copyOf(links, nodes);
+        counts = Arrays.copyOf(counts, nodes);
+        items = Arrays.copyOf(items, itemCount);
+        traversals = ThreadLocal.withInitial(() -> new Traversal(size, maxDepth));
+    }
+
+    /**
+     * Build the node of a set of geometries, splitting it by the cheapest plane if that is cheaper than a leaf
+     *
+     * @param ids   the indices of the geometries
+     * @param low   the minimal coordinates of the node
+     * @param high  the maximal coordinates of the node
+     * @param depth the depth of the node
+     */
+    private void build(int[] ids, double[] low, double[] high, int depth) {
+        int node = addNode();
+        int size = ids.length;
+        double area = area(high[0] - low[0], high[1] - low[1], high[2] - low[2]);
+        double bestCost = INTERSECTION_COST * size;
+        int bestAxis = -1;
+        double bestSplit = 0;
+
+        if (size > MAX_LEAF_SIZE && depth < maxDepth && area > 0) {
+            double[] minima = new double[size];
+            double[] maxima = new double[size];
+            for (int axis = 0; axis < 3; axis++) {
+                if (high[axis] <= low[axis]) continue;
+                for (int i = 0; i < size; i++) {
+                    minima[i] = bounds[6 * ids[i] + axis];
+                    maxima[i] = bounds[6 * ids[i] + 3 + axis];
+                }
+                Arrays.sort(minima);
+                Arrays.sort(maxima);
+                // the candidate planes are the bounds of the geometries inside the node, in increasing order:
+                // below a plane are the geometries which start before it, above it those which end after it
+                int below = 0, notAbove = 0;
+                while (below < size || notAbove < size) {
+                    double split = notAbove == size || below < size && minima[below] <= maxima[notAbove]
+                            ? minima[below] : maxima[notAbove];
+                    while (below < size && minima[below] < split) below++;
+                    while (notAbove < size && maxima[notAbove] <= split) notAbove++;
+                    if (split > low[axis] && split < high[axis]) {
+                        double cost = splitCost(low, high, area, axis, split, below, size - notAbove);
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            bestAxis = axis;
+                            bestSplit = split;
+                        }
+                    }
+                    // the geometries which start at the plane are below the next one
+                    while (below < size && minima[below] <= split) below++;
+                }
+            }
+        }
+
+        if (bestAxis >= 0) {
+            int[][] sides = partition(ids, bestAxis, bestSplit);
+            // a split which leaves all the geometries on both sides makes no progress
+            if (sides[0].length < size || sides[1].length < size) {
+                axes[node] = bestAxis;
+                splits[node] = bestSplit;
+                double[] belowHigh = high.clone();
+                belowHigh[bestAxis] = bestSplit;
+                build(sides[0], low, belowHigh, depth + 1);
+                links[node] = nodes;
+                double[] aboveLow = low.clone();
+                aboveLow[bestAxis] = bestSplit;
+                build(sides[1], aboveLow, high, depth + 1);
+                return;
+            }
+        }
+
+        axes[node] = LEAF;
+        links[node] = itemCount;
+        counts[node] = size;
+        if (itemCount + size > items.length) items = Arrays.copyOf(items, Math.max(2 * items.length, itemCount + size));
+        System.arraycopy(ids, 0, items, itemCount, size);
+        itemCount += size;
+    }
+
+    /**
+     * Calculate the expected cost of a ray crossing a node split by a plane
+     *
+     * @param low   the minimal coordinates of the node
+     * @param high  the maximal coordinates of the node
+     * @param area  the surface area of the node
+     * @param axis  the axis of the plane
+     * @param split the coordinate of the plane
+     * @param below the amount of geometries below the plane
+     * @param above the amount of geometries above the plane
+     * @return the cost
+     */
+    private static double splitCost(double[] low, double[] high, double area, int axis, double split,
+                                    int below, int above) {
+        double[] size = {high[0] - low[0], high[1] - low[1], high[2] - low[2]};
+        size[axis] = split - low[axis];
+        double areaBelow = area(size[0], size[1], size[2]);
+        size[axis] = high[axis] - split;
+        double areaAbove = area(size[0], size[1], size[2]);
+        double cost = TRAVERSAL_COST + INTERSECTION_COST * (areaBelow * below + areaAbove * above) / area;
+        return below == 0 || above == 0 ? cost * EMPTY_BONUS : cost;
+    }
+
+    /**
+     * Calculate the surface area of a box
+     *
+     * @param x the size of the box along the X axis
+     * @param y the size of the box along the Y axis
+     * @param z the size of the box along the Z axis
+     * @return the surface area
+     */
+    private static double area(double x, double y, double z) {
+        return 2 * (x * y + y * z + z * x);
+    }
+
+    /**
+     * Divide geometries by a plane - a geometry crossing the plane is on both sides,
+     * and a flat geometry in the plane is below it
+     *
+     * @param ids   the indices of the geometries
+     * @param axis  the axis of the plane
+     * @param split the coordinate of the plane
+     * @return the indices of the geometries below the plane and of the geometries above it
+     */
+    private int[][] partition(int[] ids, int axis, double split) {
+        int[] below = new int[ids.length];
+        int[] above = new int[ids.length];
+        int belowCount = 0, aboveCount = 0;
+        for (int id : ids) {
+            double min = bounds[6 * id + axis], max = bounds[6 * id + 3 + axis];
+            if (min < split || max == split) below[belowCount++] = id;
+            if (max > split) above[aboveCount++] = id;
+        }
+        return new int[][]{Arrays.copyOf(below, belowCount), Arrays.copyOf(above, aboveCount)};
+    }
+
+    /**
+     * Add a node at the end of the arrays of the nodes
+     *
+     * @return the index of the node
+     */
+    private int addNode() {
+        if (nodes == axes.length) {
+            axes = Arrays.copyOf(axes, 2 * nodes);
+            splits = Arrays.copyOf(splits, 2 * nodes);
+            links = Arrays.copyOf(links, 2 * nodes);
+            counts = Arrays.copyOf(counts, 2 * nodes);
+        }
+        return nodes++;
+    }
+
+    /**
+     * Getter for the amount of nodes in the tree
+     *
+     * @return the amount of nodes
+     */
+    public int getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Collects the geometries of the tree
+     *
+     * @param leaves the list to add the geometries to
+     */
+    void collectGeometries(List<Intersectable> leaves) {
+        leaves.addAll(Arrays.asList(geometries));
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = null;
+        for (Intersectable geometry : geometries) {
+            List<GeoPoint> geometryIntersections = geometry.findGeoIntersections(ray, maxDistance);
+            if (geometryIntersections != null) {
+                if (intersections == null) intersections = new ArrayList<>();
+                intersections.addAll(geometryIntersections);
+            }
+        }
+        return intersections;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        return traverse(ray, hit, null);
+    }
+
+    @Override
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        return traverse(ray, hit, accept);
+    }
+
+    /**
+     * Visit the leaves along a ray in order, testing the geometries in them
+     *
+     * @param ray    the ray
+     * @param hit    the record of the intersection
+     * @param accept the filter of an any-hit query, or null for a closest-hit query
+     * @return for a closest-hit query - whether a closer intersection was recorded,
+     * for an any-hit query - whether an intersection was accepted
+     */
+    private boolean traverse(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        // the part of the ray inside the bounds of the tree
+        double tMin = box.entry(ray, 0), tMax = box.exit(ray, accept == null ? hit.t : hit.maxDistance);
+        if (tMin > tMax) return false;
+
+        Traversal traversal = traversals.get();
+        traversal.mailbox.next();
+        int top = 0;
+        int node = 0;
+        boolean found = false;
+        while (true) {
+            while (axes[node] != LEAF) {
+                int axis = axes[node];
+                double origin = origin(ray, axis), inverse = inverse(ray, axis), split = splits[node];
+                double tSplit = (split - origin) * inverse;
+                // the ray starts below the plane, or on it going down
+                boolean belowFirst = origin < split || origin == split && inverse <= 0;
+                int first = belowFirst ? node + 1 : links[node];
+                int second = belowFirst ? links[node] : node + 1;
+                if (Double.isNaN(tSplit) || tSplit > tMax || tSplit <= 0) node = first;
+                else if (tSplit < tMin) node = second;
+                else {
+                    traversal.nodes[top] = second;
+                    traversal.tMin[top] = tSplit;
+                    traversal.tMax[top++] = tMax;
+                    node = first;
+                    tMax = tSplit;
+                }
+            }
+
+            for (int i = links[node]; i < links[node] + counts[node]; i++) {
+                int geometry = items[i];
+                if (!traversal.mailbox.visit(geometry)) continue;
+                if (accept == null) found |= geometries[geometry].findClosestHit(ray, hit);
+                else if (geometries[geometry].findAnyHit(ray, hit, accept)) return true;
+            }
+            // a hit inside the leaf is closer than anything in the far children
+            if (accept == null && hit.t <= tMax) return found;
+
+            if (top == 0) return found;
+            node = traversal.nodes[--top];
+            tMin = traversal.tMin[top];
+            tMax = traversal.tMax[top];
+        }
+    }
+
+    private static double origin(Ray ray, int axis) {
+        return axis == 0 ? ray.originX : axis == 1 ? ray.originY : ray.originZ;
+    }
+
+    private static double inverse(Ray ray, int axis) {
+        return axis == 0 ? ray.inverseX : axis == 1 ? ray.inverseY : ray.inverseZ;
+    }
+
+    /**
+     * The stack of the far children of a traversal and the mailbox of the geometries, in a thread
+     */
+    private static class Traversal {
+        private final int[] nodes;
+        private final double[] tMin;
+        private final double[] tMax;
+        private final Mailbox mailbox;
+
+        Traversal(int size, int maxDepth) {
+            nodes = new int[maxDepth + 1];
+            tMin = new double[maxDepth + 1];
+            tMax = new double[maxDepth + 1];
+            mailbox = new Mailbox(size);
+        }
+    }
+}
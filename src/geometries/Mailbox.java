@@ -0,0 +1,44 @@
+package geometries;
+
+import java.util.Arrays;
+
+/**
+ * The stamps of the last rays the geometries of an acceleration structure were tested against in a thread,
+ * so a geometry which is referenced from several cells (or leaves) is tested once per ray
+ */
+class Mailbox {
+    private final int[] stamps;
+    private int stamp = 0;
+
+    /**
+     * Constructor for Mailbox
+     *
+     * @param size the amount of geometries
+     */
+    Mailbox(int size) {
+        stamps = new int[size];
+    }
+
+    /**
+     * Start a new ray, for which no geometry was tested yet
+     */
+    void next() {
+        if (++stamp == 0) {
+            // after the stamps wrapped around, the old stamps might be taken as new ones
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Mark a geometry as tested against the current ray
+     *
+     * @param geometry the index of the geometry
+     * @return true if the geometry was not tested against the ray yet, false otherwise
+     */
+    boolean visit(int geometry) {
+        if (stamps[geometry] == stamp) return false;
+        stamps[geometry] = stamp;
+        return true;
+    }
+}
@@ -6,6 +6,7 @@ import primitives.Util;
 import primitives.Vector;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 import static primitives.Util.alignZero;
 
@@ -17,6 +18,10 @@ public class Plane extends Geometry {
     private final Point q;
     private final Vector normal;
 
+    // the coordinates of q and the normal, cached for the intersection test
+    private final double qx, qy, qz;
+    private final double nx, ny, nz;
+
     /**
      * Constructor to initialize a plane based on a point and a normal vector. <br>
      * takes 3 points on the plane and set the normal vector and a point on the plane
@@ -30,6 +35,12 @@ public class Plane extends Geometry {
         this.normal = p2.subtract(p1)
                 .crossProduct(p3.subtract(p1))
                 .normalize();
+        qx = q.getX();
+        qy = q.getY();
+        qz = q.getZ();
+        nx = normal.getX();
+        ny = normal.getY();
+        nz = normal.getZ();
     }
 
     /**
@@ -41,6 +52,12 @@ public class Plane extends Geometry {
     public Plane(Point point, Vector normal) {
         this.q = point;
         this.normal = normal.normalize();
+        qx = q.getX();
+        qy = q.getY();
+        qz = q.getZ();
+        nx = this.normal.getX();
+        ny = this.normal.getY();
+        nz = this.normal.getZ();
     }
 
     /**
@@ -59,15 +76,46 @@ public class Plane extends Geometry {
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = intersectionDistance(ray, maxDistance);
+        if (Double.isNaN(t)) return null;
+
+        return List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double t = intersectionDistance(ray, hit.t);
+        return !Double.isNaN(t) && hit.offer(t, this);
+    }
+
+    @Override
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        double t = intersectionDistance(ray, hit.maxDistance);
+        if (Double.isNaN(t)) return false;
+        hit.set(t, this);
+        return accept.test(hit);
+    }
+
+    /**
+     * Calculate the distance along a ray to its intersection with the plane.<br>
+     * Planes are unbounded, so every ray is tested against them - the test works on the cached coordinates
+     * and allocates nothing.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance of the intersection
+     * @return the distance of the intersection from the head of the ray, or NaN if there is none within maxDistance
+     */
+    double intersectionDistance(Ray ray, double maxDistance) {
         Vector direction = ray.getDirection();
-        Point p0 = ray.getPoint(0d);
+        double nd = direction.getX() * nx + direction.getY() * ny + direction.getZ() * nz;
+        double ux = qx - ray.originX, uy = qy - ray.originY, uz = qz - ray.originZ;
         // if the ray is parallel to the plane or the ray starts on the plane at the point q
-        if (Util.isZero(direction.dotProduct(normal)) || q.equals(p0))
-            return null;
+        if (Util.isZero(nd) || (Util.isZero(ux) && Util.isZero(uy) && Util.isZero(uz)))
+            return Double.NaN;
 
-        // calculate the intersection point
-        double t = normal.dotProduct(q.subtract(p0)) / normal.dotProduct(direction);
+        // calculate the distance to the intersection point
+        double t = (nx * ux + ny * uy + nz * uz) / nd;
 
-        return Util.alignZero(t) <= 0d || alignZero(t - maxDistance) > 0d ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+        return Util.alignZero(t) <= 0d || alignZero(t - maxDistance) > 0d ? Double.NaN : t;
     }
 }
@@ -1,6 +1,7 @@
 package geometries;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
@@ -30,6 +31,26 @@ public class Polygon extends Geometry {
      */
     private final int size;
 
+    /**
+     * The projected edges of the polygon, computed for its first intersection test, since a triangle has its own
+     * test and never needs them. Threads which race on the first test compute the same edges.
+     */
+    private Edges edges = null;
+
+    /**
+     * The projection of a polygon onto a coordinate plane, dropping the axis its normal is closest to
+     * so the projection keeps the polygon's shape as large as possible, and the equations of the projected edges:
+     * A*u + B*v + C is the signed distance of a projected point from the line of each edge,
+     * and it has the same sign for all the edges only inside the polygon
+     *
+     * @param droppedAxis the axis dropped for the projection (0=X, 1=Y, 2=Z)
+     * @param edgeA       the A coefficients of the edges
+     * @param edgeB       the B coefficients of the edges
+     * @param edgeC       the C coefficients of the edges
+     */
+    private record Edges(int droppedAxis, double[] edgeA, double[] edgeB, double[] edgeC) {
+    }
+
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
      * path. The polygon must be convex.
@@ -64,6 +85,7 @@ public class Polygon extends Geometry {
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         plane = new Plane(vertices[0], vertices[1], vertices[2]);
+
         if (size == 3) return; // no need for more tests for a Triangle
 
         Vector n = plane.getNormal();
@@ -99,39 +121,108 @@ public class Polygon extends Geometry {
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        // Find and return the intersection points of the ray with the plane
-        List<Point> points = plane.findIntersections(ray);
-
-        // If the ray does not intersect the plane or the intersection point is too far, return null
-        if (points == null || alignZero(points.getFirst().distanceSquared(ray.getPoint(0d)) - maxDistance * maxDistance) > 0d) return null;
+        double t = intersectionDistance(ray, maxDistance);
+        return Double.isNaN(t) ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
 
-        // Initialize a list to hold the normals of the edges of the polygonal base
-        List<Vector> normals = new LinkedList<>();
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double t = intersectionDistance(ray, hit.t);
+        return !Double.isNaN(t) && hit.offer(t, this);
+    }
 
-        // Get the starting point and direction of the ray
-        final Point startPoint = ray.getPoint(0d);
-        final Vector dir = ray.getDirection();
+    @Override
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        double t = intersectionDistance(ray, hit.maxDistance);
+        if (Double.isNaN(t)) return false;
+        hit.set(t, this);
+        return accept.test(hit);
+    }
 
-        // Calculate the normal vector for each edge of the polygonal base
-        Vector v1 = vertices.getFirst().subtract(startPoint);
-        for (Point p : vertices.subList(1, size)) {
-            Vector v2 = p.subtract(startPoint);
-            normals.add(v1.crossProduct(v2).normalize());
-            v1 = v2;
+    /**
+     * Calculate the distance along a ray to its intersection with the polygon
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance of the intersection
+     * @return the distance of the intersection from the head of the ray, or NaN if there is none within maxDistance
+     */
+    private double intersectionDistance(Ray ray, double maxDistance) {
+        // Find the distance to the intersection with the plane
+        double t = plane.intersectionDistance(ray, maxDistance);
+        if (Double.isNaN(t)) return t;
+
+        Vector dir = ray.getDirection();
+        double x = ray.originX + dir.getX() * t;
+        double y = ray.originY + dir.getY() * t;
+        double z = ray.originZ + dir.getZ() * t;
+
+        // The projected point must be strictly on the same side of all the edges
+        Edges projected = getEdges();
+        double[] edgeA = projected.edgeA, edgeB = projected.edgeB, edgeC = projected.edgeC;
+        double u = projectU(projected.droppedAxis, x, y), v = projectV(projected.droppedAxis, y, z);
+        boolean positive = false;
+        for (int i = 0; i < size; i++) {
+            double distance = edgeA[i] * u + edgeB[i] * v + edgeC[i];
+            if (isZero(distance)) return Double.NaN;
+            if (i == 0) positive = distance > 0;
+            else if (distance > 0 != positive) return Double.NaN;
         }
-        // Add the normal for the edge connecting the last vertex to the first vertex
-        normals.add(vertices.getLast().subtract(startPoint).crossProduct(vertices.getFirst().subtract(startPoint)).normalize());
-
-        // Determine if the ray direction is consistently on one side of all the polygon's edges
-        boolean allPositive = dir.dotProduct(normals.getFirst()) > 0d;
-        for (Vector normal : normals) {
-            double s = dir.dotProduct(normal);
-            // If the dot product is zero or if it changes sign, the ray does not intersect the polygon's base
-            if (Util.isZero(s) || (Util.alignZero(s) > 0d != allPositive)) {
-                return null;
-            }
+        return t;
+    }
+
+    /**
+     * Get the projected edges of the polygon, computing them on the first call
+     *
+     * @return the projected edges
+     */
+    private Edges getEdges() {
+        Edges result = edges;
+        if (result != null) return result;
+
+        Vector normal = plane.getNormal();
+        double nx = Math.abs(normal.getX()), ny = Math.abs(normal.getY()), nz = Math.abs(normal.getZ());
+        int droppedAxis = nx >= ny && nx >= nz ? 0 : ny >= nz ? 1 : 2;
+        double[] edgeA = new double[size], edgeB = new double[size], edgeC = new double[size];
+        for (int i = 0; i < size; i++) {
+            Point from = vertices.get(i);
+            Point to = vertices.get((i + 1) % size);
+            double fromU = projectU(droppedAxis, from.getX(), from.getY());
+            double fromV = projectV(droppedAxis, from.getY(), from.getZ());
+            double toU = projectU(droppedAxis, to.getX(), to.getY());
+            double toV = projectV(droppedAxis, to.getY(), to.getZ());
+            double a = fromV - toV, b = toU - fromU;
+            double length = Math.sqrt(a * a + b * b);
+            edgeA[i] = a / length;
+            edgeB[i] = b / length;
+            edgeC[i] = -(edgeA[i] * fromU + edgeB[i] * fromV);
         }
-        return List.of(new GeoPoint(this, points.getFirst()));
+        // the arrays are filled before the record is built, so its final fields publish them safely to other threads
+        edges = result = new Edges(droppedAxis, edgeA, edgeB, edgeC);
+        return result;
+    }
+
+    /**
+     * Get the first coordinate of a point projected onto a coordinate plane
+     *
+     * @param droppedAxis the axis dropped for the projection (0=X, 1=Y, 2=Z)
+     * @param x           the X coordinate of the point
+     * @param y           the Y coordinate of the point
+     * @return X, or Y when X is dropped
+     */
+    private static double projectU(int droppedAxis, double x, double y) {
+        return droppedAxis == 0 ? y : x;
+    }
+
+    /**
+     * Get the second coordinate of a point projected onto a coordinate plane
+     *
+     * @param droppedAxis the axis dropped for the projection (0=X, 1=Y, 2=Z)
+     * @param y           the Y coordinate of the point
+     * @param z           the Z coordinate of the point
+     * @return Z, or Y when Z is dropped
+     */
+    private static double projectV(int droppedAxis, double y, double z) {
+        return droppedAxis == 2 ? y : z;
     }
 
     private static BoundingBox getBoundingBox(Point[] vertices) {
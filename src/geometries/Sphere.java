@@ -6,6 +6,7 @@ import primitives.Vector;
 import primitives.Util;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 import static primitives.Util.alignZero;
 
@@ -15,6 +16,10 @@ import static primitives.Util.alignZero;
 public class Sphere extends RadialGeometry {
     private final Point center;
 
+    // the coordinates of the center and the squared radius, cached for the intersection test
+    private final double cx, cy, cz;
+    private final double radiusSquared;
+
     /**
      * Constructor to initialize a sphere based on a radius and a center point
      *
@@ -24,6 +29,10 @@ public class Sphere extends RadialGeometry {
     public Sphere(double radius, Point center) {
         super(radius);
         this.center = center;
+        cx = center.getX();
+        cy = center.getY();
+        cz = center.getZ();
+        radiusSquared = radius * radius;
         this.box = getBoundingBox();
     }
 
@@ -35,34 +44,83 @@ public class Sphere extends RadialGeometry {
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        Point p0 = ray.getPoint(0);
-        Vector dir = ray.getDirection();
+        double tm = closestApproach(ray);
+        double th = halfChord(ray, tm);
+        if (Double.isNaN(th)) return null;
 
-        // if the ray starts at the center of the sphere
-        if (center.equals(p0))
-            return List.of(new GeoPoint(this, ray.getPoint(radius)));
+        double t1 = alignZero(tm - th);
+        double t2 = alignZero(tm + th);
+        boolean first = t1 > 0 && alignZero(t1 - maxDistance) <= 0d;
+        boolean second = t2 > 0 && alignZero(t2 - maxDistance) <= 0d;
 
-        Vector u = (center.subtract(p0));
-        double tm = dir.dotProduct(u);
-        double d = Util.alignZero(Math.sqrt(u.lengthSquared() - tm * tm));
-        if (d >= radius)
-            return null;
+        // if the ray starts before the sphere
+        if (first && second)
+            return List.of(new GeoPoint(this, ray.getPoint(t1)), new GeoPoint(this, ray.getPoint(t2)));
+        // if the ray starts inside the sphere, or the sphere is cut by the maximum distance
+        if (first)
+            return List.of(new GeoPoint(this, ray.getPoint(t1)));
+        if (second)
+            return List.of(new GeoPoint(this, ray.getPoint(t2)));
+        return null;
+    }
 
-        double th = Math.sqrt(radius * radius - d * d);
-        double t1 = Util.alignZero(tm - th);
-        double t2 = Util.alignZero(tm + th);
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double tm = closestApproach(ray);
+        double th = halfChord(ray, tm);
+        if (Double.isNaN(th)) return false;
+
+        // only the nearer intersection in front of the ray is offered
+        double t1 = alignZero(tm - th);
+        if (t1 > 0)
+            return hit.offer(t1, this);
+        double t2 = alignZero(tm + th);
+        return t2 > 0 && hit.offer(t2, this);
+    }
 
-        // if the ray starts before the sphere
-        if (t1 > 0 && t2 > 0 && alignZero(t1 - maxDistance) <= 0d && alignZero(t2 - maxDistance) <= 0d)
-            return List.of(new GeoPoint(this,ray.getPoint(t1)),new GeoPoint(this, ray.getPoint(t2)));
+    @Override
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        double tm = closestApproach(ray);
+        double th = halfChord(ray, tm);
+        if (Double.isNaN(th)) return false;
+
+        // the farther intersection is tested only if the nearer one is not accepted
+        double t1 = alignZero(tm - th);
+        if (t1 > 0 && alignZero(t1 - hit.maxDistance) <= 0d) {
+            hit.set(t1, this);
+            if (accept.test(hit)) return true;
+        }
+        double t2 = alignZero(tm + th);
+        if (t2 > 0 && alignZero(t2 - hit.maxDistance) <= 0d) {
+            hit.set(t2, this);
+            return accept.test(hit);
+        }
+        return false;
+    }
 
-        // if the ray starts inside the sphere
-        if (t1 > 0 && alignZero(t1 - maxDistance) <= 0d)
-            return List.of(new GeoPoint(this,ray.getPoint(t1)));
-        if (t2 > 0 && alignZero(t2 - maxDistance) <= 0d)
-            return List.of(new GeoPoint(this,ray.getPoint(t2)));
+    /**
+     * Calculate the distance along a ray to the point of the ray's line which is closest to the center
+     *
+     * @param ray the ray
+     * @return the distance from the head of the ray, negative if the point is behind the ray
+     */
+    private double closestApproach(Ray ray) {
+        Vector dir = ray.getDirection();
+        return dir.getX() * (cx - ray.originX) + dir.getY() * (cy - ray.originY) + dir.getZ() * (cz - ray.originZ);
+    }
 
-        return null;
+    /**
+     * Calculate half of the chord which the ray's line cuts in the sphere, from the discriminant
+     * r^2 - d^2 where d is the distance of the line from the center
+     *
+     * @param ray the ray
+     * @param tm  the distance along the ray to the point which is closest to the center
+     * @return the half chord, or NaN if the line misses the sphere or touches it
+     */
+    private double halfChord(Ray ray, double tm) {
+        double ux = cx - ray.originX, uy = cy - ray.originY, uz = cz - ray.originZ;
+        double discriminant = radiusSquared - (ux * ux + uy * uy + uz * uz - tm * tm);
+        return Util.alignZero(discriminant) <= 0 ? Double.NaN : Math.sqrt(discriminant);
     }
 
     /**
@@ -6,12 +6,21 @@ import primitives.Util;
 import primitives.Vector;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Triangle class represents a triangle in 3D Cartesian coordinate system.
  */
 public class Triangle extends Polygon {
 
+    // the first vertex, the edges from it and the normal, cached for the intersection test
+    private final double x1, y1, z1;
+    private final double abX, abY, abZ;
+    private final double acX, acY, acZ;
+    private final double nx, ny, nz;
+    // the constant parts of the barycentric coordinates equations
+    private final double dot00, dot01, dot11, invDenom;
+
     /**
      * Constructor to initialize a triangle based on three vertices.
      * @param p1 first Point
@@ -20,31 +29,80 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point p1, Point p2, Point p3) {
         super(p1, p2, p3);
+        Vector ab = p2.subtract(p1);
+        Vector ac = p3.subtract(p1);
+        Vector n = ab.crossProduct(ac);
+        x1 = p1.getX();
+        y1 = p1.getY();
+        z1 = p1.getZ();
+        abX = ab.getX();
+        abY = ab.getY();
+        abZ = ab.getZ();
+        acX = ac.getX();
+        acY = ac.getY();
+        acZ = ac.getZ();
+        nx = n.getX();
+        ny = n.getY();
+        nz = n.getZ();
+        dot00 = ab.dotProduct(ab);
+        dot01 = ab.dotProduct(ac);
+        dot11 = ac.dotProduct(ac);
+        invDenom = 1 / (dot00 * dot11 - dot01 * dot01);
     }
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        Point p1 = vertices.get(0);
-        Point p2 = vertices.get(1);
-        Point p3 = vertices.get(2);
+        double t = intersectionDistance(ray, maxDistance);
+        return Double.isNaN(t) ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
 
-        Vector ab = p2.subtract(p1);
-        Vector ac = p3.subtract(p1);
-        Vector n = ab.crossProduct(ac);
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double t = intersectionDistance(ray, hit.t);
+        if (Double.isNaN(t) || !hit.offer(t, this)) return false;
+        setBarycentric(ray, hit);
+        return true;
+    }
+
+    @Override
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        double t = intersectionDistance(ray, hit.maxDistance);
+        if (Double.isNaN(t)) return false;
+        hit.set(t, this);
+        setBarycentric(ray, hit);
+        return accept.test(hit);
+    }
 
-        double nd = n.dotProduct(ray.getDirection());
+    /**
+     * Calculate the distance along a ray to its intersection with the triangle,
+     * on the cached coordinates of the triangle and without allocations
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance of the intersection
+     * @return the distance of the intersection from the head of the ray, or NaN if there is none within maxDistance
+     */
+    private double intersectionDistance(Ray ray, double maxDistance) {
+        Vector dir = ray.getDirection();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double nd = nx * dx + ny * dy + nz * dz;
         if (Util.isZero(nd)) {
-            return null; // The ray is parallel to the plane of the triangle
+            return Double.NaN; // The ray is parallel to the plane of the triangle
         }
 
-        double t = n.dotProduct(p1.subtract(ray.getPoint(0))) / nd;
+        double t = (nx * (x1 - ray.originX) + ny * (y1 - ray.originY) + nz * (z1 - ray.originZ)) / nd;
         if (t < 0) {
-            return null; // The intersection is behind the ray's origin
+            return Double.NaN; // The intersection is behind the ray's origin
         }
 
-        Point p = ray.getPoint(t);
-        if (p.equals(p1) || p.equals(p2) || p.equals(p3)) {
-            return null; // The intersection point is one of the triangle's vertices
+        // the intersection point, which is the head of the ray when t is zero
+        boolean atHead = Util.isZero(t);
+        double px = atHead ? ray.originX : ray.originX + dx * t;
+        double py = atHead ? ray.originY : ray.originY + dy * t;
+        double pz = atHead ? ray.originZ : ray.originZ + dz * t;
+        double apX = px - x1, apY = py - y1, apZ = pz - z1;
+        if (isVertex(apX, apY, apZ) || isVertex(apX - abX, apY - abY, apZ - abZ)
+                || isVertex(apX - acX, apY - acY, apZ - acZ)) {
+            return Double.NaN; // The intersection point is one of the triangle's vertices
         }
 
         /*
@@ -58,22 +116,47 @@ public class Triangle extends Polygon {
          *
          * so we can use Kermer's rule to solve the equations and found v, u and w
          */
-        Vector ap = p.subtract(p1);
-        double dot00 = ab.dotProduct(ab);
-        double dot01 = ab.dotProduct(ac);
-        double dot02 = ab.dotProduct(ap);
-        double dot11 = ac.dotProduct(ac);
-        double dot12 = ac.dotProduct(ap);
-
-        double invDenom = 1 / (dot00 * dot11 - dot01 * dot01);
+        double dot02 = abX * apX + abY * apY + abZ * apZ;
+        double dot12 = acX * apX + acY * apY + acZ * apZ;
         double u = (dot11 * dot02 - dot01 * dot12) * invDenom;
         double v = (dot00 * dot12 - dot01 * dot02) * invDenom;
         double w = 1.0 - u - v;
 
         // Check if the point is inside the triangle
-        if (Util.alignZero(u) > 0 && Util.alignZero(v) > 0 && Util.alignZero(w) > 0 && Util.alignZero(p.distanceSquared(ray.getPoint(0)) - maxDistance*maxDistance)<=0) {
-            return List.of(new GeoPoint(this, p));
+        double ux = px - ray.originX, uy = py - ray.originY, uz = pz - ray.originZ;
+        if (Util.alignZero(u) > 0 && Util.alignZero(v) > 0 && Util.alignZero(w) > 0
+                && Util.alignZero(ux * ux + uy * uy + uz * uz - maxDistance * maxDistance) <= 0) {
+            return t;
         }
-        return null;
+        return Double.NaN;
+    }
+
+    /**
+     * Check whether a point is at a vertex of the triangle
+     *
+     * @param x the X coordinate of the vector from the vertex to the point
+     * @param y the Y coordinate of the vector from the vertex to the point
+     * @param z the Z coordinate of the vector from the vertex to the point
+     * @return true if the vector is zero, false otherwise
+     */
+    private static boolean isVertex(double x, double y, double z) {
+        return Util.isZero(x) && Util.isZero(y) && Util.isZero(z);
+    }
+
+    /**
+     * Set the barycentric coordinates of the intersection recorded in a hit record
+     *
+     * @param ray the ray of the intersection
+     * @param hit the record of the intersection
+     */
+    private void setBarycentric(Ray ray, HitRecord hit) {
+        Vector dir = ray.getDirection();
+        double apX = ray.originX + dir.getX() * hit.t - x1;
+        double apY = ray.originY + dir.getY() * hit.t - y1;
+        double apZ = ray.originZ + dir.getZ() * hit.t - z1;
+        double dot02 = abX * apX + abY * apY + abZ * apZ;
+        double dot12 = acX * apX + acY * apY + acZ * apZ;
+        hit.u = (dot11 * dot02 - dot01 * dot12) * invDenom;
+        hit.v = (dot00 * dot12 - dot01 * dot02) * invDenom;
     }
-}
\ No newline at end of file
+}
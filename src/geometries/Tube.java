@@ -4,8 +4,8 @@ import primitives.Ray;
 import primitives.Point;
 import primitives.Vector;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Predicate;
 
 import static primitives.Util.alignZero;
 
@@ -42,50 +42,77 @@ public class Tube extends RadialGeometry {
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double[] distances = new double[4];
+        int count = intersectionDistances(ray, maxDistance, distances);
+        if (count == 0) return null;
+
+        GeoPoint[] intersections = new GeoPoint[count];
+        for (int i = 0; i < count; i++)
+            intersections[i] = new GeoPoint(this, ray.getPoint(distances[i]));
+        return List.of(intersections);
+    }
 
-        Vector vAxis = axis.getDirection();
-        Vector v = ray.getDirection();
-        Vector deltaP;
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double[] distances = hit.distances;
+        int count = intersectionDistances(ray, hit.t, distances);
+        boolean found = false;
+        for (int i = 0; i < count; i++)
+            found |= hit.offer(distances[i], this);
+        return found;
+    }
 
-        try {
-            deltaP = ray.getPoint(0).subtract(axis.getPoint(0));
-        } catch (IllegalArgumentException e) {
-            deltaP = null;
+    @Override
+    protected boolean findAnyHitHelper(Ray ray, HitRecord hit, Predicate<HitRecord> accept) {
+        double[] distances = hit.distances;
+        int count = intersectionDistances(ray, hit.maxDistance, distances);
+        for (int i = 0; i < count; i++) {
+            hit.set(distances[i], this);
+            if (accept.test(hit)) return true;
         }
+        return false;
+    }
 
-        double a, b, c;
+    /**
+     * Calculate the distances along a ray to its intersections with the tube.<br>
+     * Tubes are unbounded, so every ray is tested against them - the test works on the cached coordinates
+     * of the rays and allocates nothing.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance of the intersections
+     * @param distances   the array to fill with the distances of the intersections, which holds at least 4
+     * @return the amount of intersections within maxDistance
+     */
+    protected int intersectionDistances(Ray ray, double maxDistance, double[] distances) {
+        Vector vAxis = axis.getDirection();
+        double ax = vAxis.getX(), ay = vAxis.getY(), az = vAxis.getZ();
+        Vector v = ray.getDirection();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        // deltaP is zero when the ray starts on the axis of the tube, and then b is zero and c is -r^2
+        double px = ray.originX - axis.originX, py = ray.originY - axis.originY, pz = ray.originZ - axis.originZ;
 
-        a = v.dotProduct(v) - Math.pow(v.dotProduct(vAxis), 2);
+        double vAxisDot = vx * ax + vy * ay + vz * az;
+        double deltaPAxisDot = px * ax + py * ay + pz * az;
 
-        if (deltaP == null) {
-            // Special case: deltaP is zero, meaning the ray starts on the axis of the tube
-            b = 0;
-            c = -radius * radius;
-        } else {
-            b = 2 * (v.dotProduct(deltaP) - (v.dotProduct(vAxis) * deltaP.dotProduct(vAxis)));
-            c = deltaP.dotProduct(deltaP) - Math.pow(deltaP.dotProduct(vAxis), 2) - radius * radius;
-        }
+        double a = (vx * vx + vy * vy + vz * vz) - vAxisDot * vAxisDot;
+        double b = 2 * ((vx * px + vy * py + vz * pz) - vAxisDot * deltaPAxisDot);
+        double c = (px * px + py * py + pz * pz) - deltaPAxisDot * deltaPAxisDot - radius * radius;
 
         double discriminant = alignZero(b * b - 4 * a * c);
 
         if (discriminant <= 0) {
-            return null;
+            return 0;
         }
 
         double sqrtDiscriminant = Math.sqrt(discriminant);
 
-        List<Point> intersections = new LinkedList<>();
         // Two intersection points
         double t1 = alignZero((-b - sqrtDiscriminant) / (2d * a));
         double t2 = alignZero((-b + sqrtDiscriminant) / (2d * a));
 
-        if (t1 > 0d && alignZero(t1 - maxDistance) <= 0d) {
-            intersections.add(ray.getPoint(t1));
-        }
-
-        if (t2 > 0d && alignZero(t2 - maxDistance) <= 0d) {
-            intersections.add(ray.getPoint(t2));
-        }
-        return intersections.isEmpty() ? null : intersections.stream().map(p -> new GeoPoint(this, p)).toList();
+        int count = 0;
+        if (t1 > 0d && alignZero(t1 - maxDistance) <= 0d) distances[count++] = t1;
+        if (t2 > 0d && alignZero(t2 - maxDistance) <= 0d) distances[count++] = t2;
+        return count;
     }
-}
\ No newline at end of file
+}
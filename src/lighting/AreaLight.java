@@ -0,0 +1,110 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * AreaLight class represents a light source with a surface - a disk or a parallelogram (e.g. a rectangle)
+ * around its position, which casts soft shadows.<br>
+ * The light is shaded as a point light at its center, and its surface is sampled by the shadow rays:
+ * the fraction of the surface seen from a point is its visibility of the light.
+ */
+public class AreaLight extends PointLight {
+    // the half axes of the surface, scaled to its size
+    private final Vector axisU, axisV;
+    // whether the surface is a disk inside the axes, or the parallelogram they span
+    private final boolean disk;
+
+    @Override
+    public AreaLight setKc(double kC) {
+        super.setKc(kC);
+        return this;
+    }
+
+    @Override
+    public AreaLight setKl(double kL) {
+        super.setKl(kL);
+        return this;
+    }
+
+    @Override
+    public AreaLight setKq(double kQ) {
+        super.setKq(kQ);
+        return this;
+    }
+
+    /**
+     * Constructor for a disk light
+     * @param color color of the light
+     * @param position the center of the disk
+     * @param normal the normal of the disk
+     * @param radius the radius of the disk
+     */
+    public AreaLight(Color color, Point position, Vector normal, double radius) {
+        super(color, position);
+        if (radius <= 0) throw new IllegalArgumentException("radius must be positive");
+        Vector n = normal.normalize();
+        // any vector which is not parallel to the normal gives the axes of the disk
+        Vector u = n.crossProduct(Math.abs(n.getX()) < 0.9 ? new Vector(1, 0, 0) : new Vector(0, 1, 0)).normalize();
+        axisU = u.scale(radius);
+        axisV = n.crossProduct(u).scale(radius);
+        disk = true;
+    }
+
+    /**
+     * Constructor for a parallelogram light, e.g. a rectangle
+     * @param color color of the light
+     * @param position the center of the parallelogram
+     * @param width the first edge of the parallelogram
+     * @param height the second edge of the parallelogram
+     */
+    public AreaLight(Color color, Point position, Vector width, Vector height) {
+        super(color, position);
+        // throws if the edges are parallel
+        width.crossProduct(height);
+        axisU = width.scale(0.5);
+        axisV = height.scale(0.5);
+        disk = false;
+    }
+
+    /**
+     * Get a point on the surface of the light by its coordinates on the unit square - evenly spread coordinates
+     * (e.g. a jittered grid) give evenly spread points on the surface
+     * @param s the first coordinate, in [0, 1]
+     * @param t the second coordinate, in [0, 1]
+     * @return the point on the surface of the light
+     */
+    public Point getSample(double s, double t) {
+        double a = 2 * s - 1, b = 2 * t - 1;
+        if (disk) {
+            // the concentric mapping of the square onto the disk, which keeps the cells of a grid evenly sized
+            double r, phi;
+            if (a == 0 && b == 0) return position;
+            if (Math.abs(a) > Math.abs(b)) {
+                r = a;
+                phi = Math.PI / 4 * (b / a);
+            } else {
+                r = b;
+                phi = Math.PI / 2 - Math.PI / 4 * (a / b);
+            }
+            a = r * Math.cos(phi);
+            b = r * Math.sin(phi);
+        }
+        // the coordinates are added directly, as a zero coordinate can't scale a vector
+        return new Point(position.getX() + a * axisU.getX() + b * axisV.getX(),
+                position.getY() + a * axisU.getY() + b * axisV.getY(),
+                position.getZ() + a * axisU.getZ() + b * axisV.getZ());
+    }
+
+    /**
+     * Calculate the influence radius of the light - the influence radius of its center,
+     * widened by the size of its surface
+     * @return the radius, infinite if the light is not attenuated by the distance
+     */
+    @Override
+    public double getInfluenceRadius() {
+        double radius = super.getInfluenceRadius();
+        return radius == 0d ? 0d : radius + axisU.length() + axisV.length();
+    }
+}
@@ -0,0 +1,300 @@
+package lighting;
+
+import primitives.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * LightTree is a bounding volume hierarchy of the positioned lights (point and spot lights) of a scene,
+ * for shading a few lights at each point, sampled by their importance, instead of all the lights.<br>
+ * Each node estimates the light it brings to a point from the total power of its lights and their weakest
+ * attenuation at the distance of the node. A sample descends from the root choosing each child by its share
+ * of the importance, and it is returned with its probability, so that weighting the light by
+ * 1 / (samples * probability) keeps the estimate unbiased.<br>
+ * Lights without a position (directional lights) can't be clustered, they are listed apart to be always shaded.<br>
+ * The tree is also a spatial index of the lights' influence: each node bounds the spheres of the
+ * {@link PointLight#getInfluenceRadius() influence radii} of its lights, so the lights which reach a point
+ * are collected without testing the others.
+ */
+public class LightTree {
+    /**
+     * A light sampled from the tree
+     *
+     * @param light       the index of the light in the list the tree was built from
+     * @param probability the probability the light was sampled with
+     */
+    public record Sample(int light, double probability) { }
+
+    // the indices of the lights which are not in the tree
+    private final int[] globalLights;
+    private final Node root;
+    private final int size;
+
+    /**
+     * Constructor for LightTree
+     *
+     * @param lights the lights of the scene, the samples refer to them by their index in the list
+     */
+    public LightTree(List<LightSource> lights) {
+        List<Integer> global = new ArrayList<>();
+        List<Node> leaves = new ArrayList<>();
+        for (int i = 0; i < lights.size(); i++)
+            if (lights.get(i) instanceof PointLight light)
+                leaves.add(new Node(i, light));
+            else
+                global.add(i);
+
+        globalLights = global.stream().mapToInt(Integer::intValue).toArray();
+        size = leaves.size();
+        root = leaves.isEmpty() ? null : build(leaves);
+    }
+
+    /**
+     * Getter for the amount of lights in the tree
+     *
+     * @return the amount of positioned lights
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the amount of lights which are not in the tree and are always shaded
+     *
+     * @return the amount of lights without a position
+     */
+    public int getGlobalCount() {
+        return globalLights.length;
+    }
+
+    /**
+     * Getter for a light which is not in the tree
+     *
+     * @param i the number of the light among the lights which are not in the tree
+     * @return the index of the light in the list the tree was built from
+     */
+    public int getGlobalLight(int i) {
+        return globalLights[i];
+    }
+
+    /**
+     * Collect the lights which reach a point: the lights which are not in the tree, and the lights in the tree
+     * whose influence radius holds the point and whose cone (for spot lights) faces it
+     *
+     * @param point  the point
+     * @param lights the array to fill with the indices of the lights, in their order in the list the tree
+     *               was built from - it must hold all the lights
+     * @return the amount of the collected lights
+     */
+    public int collect(Point point, int[] lights) {
+        System.arraycopy(globalLights, 0, lights, 0, globalLights.length);
+        int count = globalLights.length;
+        if (root != null) count = root.collect(point.getX(), point.getY(), point.getZ(), point, lights, count);
+        Arrays.sort(lights, 0, count);
+        return count;
+    }
+
+    /**
+     * Sample a light of the tree by its importance to a point
+     *
+     * @param point  the shaded point
+     * @param random a uniform random number in [0, 1)
+     * @return the sampled light, or null if no light of the tree reaches the point
+     */
+    public Sample sample(Point point, double random) {
+        if (root == null) return null;
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        if (root.importance(x, y, z, point) == 0) return null;
+        Node node = root;
+        double probability = 1d;
+        while (node.light < 0) {
+            double left = node.left.importance(x, y, z, point);
+            double right = node.right.importance(x, y, z, point);
+            double pLeft = left + right > 0 ? left / (left + right) : 0.5;
+            // the random number is rescaled into the chosen child's share, so one number serves all the levels
+            if (random < pLeft) {
+                probability *= pLeft;
+                random /= pLeft;
+                node = node.left;
+            } else {
+                probability *= 1 - pLeft;
+                random = (random - pLeft) / (1 - pLeft);
+                node = node.right;
+            }
+            random = Math.min(random, Math.nextDown(1d));
+        }
+        // when no child of a cluster reaches the point, the chosen light may not reach it either
+        return node.importance(x, y, z, point) == 0 ? null : new Sample(node.light, probability);
+    }
+
+    /**
+     * Build the tree of the lights by splitting them at the median of the longest axis of their positions
+     *
+     * @param nodes the leaves of the lights
+     * @return the root of the tree
+     */
+    private static Node build(List<Node> nodes) {
+        if (nodes.size() == 1) return nodes.getFirst();
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Node node : nodes) {
+            minX = Math.min(minX, node.minX);
+            minY = Math.min(minY, node.minY);
+            minZ = Math.min(minZ, node.minZ);
+            maxX = Math.max(maxX, node.maxX);
+            maxY = Math.max(maxY, node.maxY);
+            maxZ = Math.max(maxZ, node.maxZ);
+        }
+        double spanX = maxX - minX, spanY = maxY - minY, spanZ = maxZ - minZ;
+        Comparator<Node> order = spanX >= spanY && spanX >= spanZ ? Comparator.comparingDouble(n -> n.minX)
+                : spanY >= spanZ ? Comparator.comparingDouble(n -> n.minY) : Comparator.comparingDouble(n -> n.minZ);
+        List<Node> sorted = new ArrayList<>(nodes);
+        sorted.sort(order);
+
+        int middle = sorted.size() / 2;
+        return new Node(build(sorted.subList(0, middle)), build(sorted.subList(middle, sorted.size())));
+    }
+
+    /**
+     * A node of the tree - a single light or a cluster of lights
+     */
+    private static final class Node {
+        // the bounds of the positions of the lights
+        private final double minX, minY, minZ, maxX, maxY, maxZ;
+        // the squared half diagonal of the bounds, the closest distance a point is considered at
+        private final double radiusSquared;
+        // the bounds of the influence spheres of the lights
+        private final double reachMinX, reachMinY, reachMinZ, reachMaxX, reachMaxY, reachMaxZ;
+        // the squared influence radius and the light of a leaf
+        private final double influenceSquared;
+        private final PointLight source;
+        // the total power of the lights and their weakest attenuation factors
+        private final double power;
+        private final double kC, kL, kQ;
+        private final Node left, right;
+        // the index of the light of a leaf, -1 for a cluster
+        private final int light;
+
+        /**
+         * Constructor for a leaf
+         *
+         * @param index the index of the light
+         * @param light the light
+         */
+        Node(int index, PointLight light) {
+            Point position = light.getPosition();
+            minX = maxX = position.getX();
+            minY = maxY = position.getY();
+            minZ = maxZ = position.getZ();
+            radiusSquared = 0;
+            double influence = light.getInfluenceRadius();
+            reachMinX = minX - influence;
+            reachMinY = minY - influence;
+            reachMinZ = minZ - influence;
+            reachMaxX = maxX + influence;
+            reachMaxY = maxY + influence;
+            reachMaxZ = maxZ + influence;
+            influenceSquared = influence * influence;
+            source = light;
+            power = light.getIntensity().sum();
+            kC = light.getKc();
+            kL = light.getKl();
+            kQ = light.getKq();
+            left = right = null;
+            this.light = index;
+        }
+
+        /**
+         * Constructor for a cluster
+         *
+         * @param left  the first child
+         * @param right the second child
+         */
+        Node(Node left, Node right) {
+            minX = Math.min(left.minX, right.minX);
+            minY = Math.min(left.minY, right.minY);
+            minZ = Math.min(left.minZ, right.minZ);
+            maxX = Math.max(left.maxX, right.maxX);
+            maxY = Math.max(left.maxY, right.maxY);
+            maxZ = Math.max(left.maxZ, right.maxZ);
+            double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+            radiusSquared = (dx * dx + dy * dy + dz * dz) / 4;
+            reachMinX = Math.min(left.reachMinX, right.reachMinX);
+            reachMinY = Math.min(left.reachMinY, right.reachMinY);
+            reachMinZ = Math.min(left.reachMinZ, right.reachMinZ);
+            reachMaxX = Math.max(left.reachMaxX, right.reachMaxX);
+            reachMaxY = Math.max(left.reachMaxY, right.reachMaxY);
+            reachMaxZ = Math.max(left.reachMaxZ, right.reachMaxZ);
+            influenceSquared = 0;
+            source = null;
+            power = left.power + right.power;
+            kC = Math.min(left.kC, right.kC);
+            kL = Math.min(left.kL, right.kL);
+            kQ = Math.min(left.kQ, right.kQ);
+            this.left = left;
+            this.right = right;
+            light = -1;
+        }
+
+        /**
+         * Check whether the node may reach a point
+         *
+         * @param x     the X coordinate of the point
+         * @param y     the Y coordinate of the point
+         * @param z     the Z coordinate of the point
+         * @param point the point
+         * @return for a leaf - whether its light reaches the point,
+         * for a cluster - whether the point is in the bounds of the influence of its lights
+         */
+        boolean reaches(double x, double y, double z, Point point) {
+            if (x < reachMinX || x > reachMaxX || y < reachMinY || y > reachMaxY || z < reachMinZ || z > reachMaxZ)
+                return false;
+            if (source == null) return true;
+            double dx = x - minX, dy = y - minY, dz = z - minZ;
+            return dx * dx + dy * dy + dz * dz <= influenceSquared && source.illuminates(point);
+        }
+
+        /**
+         * Collect the lights under the node which reach a point
+         *
+         * @param x      the X coordinate of the point
+         * @param y      the Y coordinate of the point
+         * @param z      the Z coordinate of the point
+         * @param point  the point
+         * @param lights the array to add the indices of the lights to
+         * @param count  the amount of lights in the array
+         * @return the amount of lights in the array after adding
+         */
+        int collect(double x, double y, double z, Point point, int[] lights, int count) {
+            if (!reaches(x, y, z, point)) return count;
+            if (source != null) {
+                lights[count] = light;
+                return count + 1;
+            }
+            return right.collect(x, y, z, point, lights, left.collect(x, y, z, point, lights, count));
+        }
+
+        /**
+         * Estimate the light the node brings to a point
+         *
+         * @param x     the X coordinate of the point
+         * @param y     the Y coordinate of the point
+         * @param z     the Z coordinate of the point
+         * @param point the point
+         * @return the power of the node, attenuated at the distance of its center (but not closer than its bounds),
+         * or 0 if the node doesn't reach the point
+         */
+        double importance(double x, double y, double z, Point point) {
+            if (!reaches(x, y, z, point)) return 0;
+            double dx = x - (minX + maxX) / 2, dy = y - (minY + maxY) / 2, dz = z - (minZ + maxZ) / 2;
+            double distanceSquared = Math.max(dx * dx + dy * dy + dz * dz, radiusSquared);
+            double factor = kC + kL * Math.sqrt(distanceSquared) + kQ * distanceSquared;
+            // a light without attenuation near the point must still leave a chance for the others
+            return power / Math.max(factor, 1e-10);
+        }
+    }
+}
@@ -9,6 +9,12 @@ import primitives.Vector;
  * PointLight class represents a light source with a specific position in the scene
  */
 public class PointLight extends Light implements LightSource{
+    /**
+     * The intensity below which the light is too weak to change the color of a pixel,
+     * even when it is summed from many lights
+     */
+    private static final double MIN_INTENSITY = 0.001;
+
     /**
      * position of the light source
      */
@@ -57,6 +63,61 @@ public class PointLight extends Light implements LightSource{
         this.position = position;
     }
 
+    /**
+     * Calculate the influence radius of the light - the distance beyond which the attenuation (by kC, kL and kQ)
+     * makes the light too weak to be seen
+     * @return the radius, infinite if the light is not attenuated by the distance
+     */
+    public double getInfluenceRadius() {
+        // the attenuation factor which makes the total intensity of the light too weak
+        double factor = intensity.sum() / MIN_INTENSITY;
+        if (factor <= kC) return 0d;
+        if (kQ > 0d) return (-kL + Math.sqrt(kL * kL + 4d * kQ * (factor - kC))) / (2d * kQ);
+        if (kL > 0d) return (factor - kC) / kL;
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Check whether the light reaches a point besides its influence radius - a point light reaches all the points
+     * @param point the point
+     * @return true
+     */
+    boolean illuminates(Point point) {
+        return true;
+    }
+
+    /**
+     * Getter for the position of the light source
+     * @return the position
+     */
+    Point getPosition() {
+        return position;
+    }
+
+    /**
+     * Getter for the constant attenuation factor
+     * @return kC
+     */
+    double getKc() {
+        return kC;
+    }
+
+    /**
+     * Getter for the linear attenuation factor
+     * @return kL
+     */
+    double getKl() {
+        return kL;
+    }
+
+    /**
+     * Getter for the quadratic attenuation factor
+     * @return kQ
+     */
+    double getKq() {
+        return kQ;
+    }
+
     @Override
     public Color getIntensity(Point point) {
         double d = position.distance(point);
@@ -49,6 +49,21 @@ public class SpotLight extends PointLight{
         this.direction = direction.normalize();
     }
 
+    /**
+     * Check whether the light reaches a point besides its influence radius - a spot light doesn't reach
+     * the points behind it, where its cone gives no intensity
+     * @param point the point
+     * @return true if the point is in front of the light, false otherwise
+     */
+    @Override
+    boolean illuminates(Point point) {
+        // without a narrow beam (0), the intensity is not shaped by the cone
+        if (narrowBeam == 0d) return true;
+        return direction.getX() * (point.getX() - position.getX())
+                + direction.getY() * (point.getY() - position.getY())
+                + direction.getZ() * (point.getZ() - position.getZ()) > 0d;
+    }
+
     @Override
     public Color getIntensity(Point point) {
         Color oldColor = super.getIntensity(point);
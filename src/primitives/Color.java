@@ -111,6 +111,12 @@ public class Color {
         return new Color(rgb.reduce(k));
     }
 
+    /**
+     * Sum of the rgb components, e.g. for comparing the power of light sources
+     * @return the sum of the components
+     */
+    public double sum() { return rgb.d1 + rgb.d2 + rgb.d3; }
+
     @Override
     public String toString() { return "rgb:" + rgb; }
 }
@@ -124,4 +124,10 @@ public class Double3 {
      * @return   true if all the numbers are greater than k, false otherwise
      */
     public boolean greaterThan(double k) { return d1 > k && d2 > k && d3 > k; }
+
+    /**
+     * Finds the largest of the numbers
+     * @return the largest number
+     */
+    public double max() { return Math.max(d1, Math.max(d2, d3)); }
 }
@@ -1,31 +1,39 @@
 package primitives;
 
 /**
- * Material class represents the material of a geometry
+ * Material class represents the material of a geometry.<br>
+ * The factors are set only by the setters, which keep the flags of the factors up to date.
  */
 public class Material {
     /**
      * kD is the diffuse factor
      */
-    public Double3 kD = Double3.ZERO;
+    private Double3 kD = Double3.ZERO;
     /**
      * kS is the specular factor
      */
-    public Double3 kS = Double3.ZERO;
+    private Double3 kS = Double3.ZERO;
     /**
-     * kT is the transparency factor
+     * nShininess is the shininess factor
      */
-    public int nShininess = 0;
+    private int nShininess = 0;
 
     /**
      * kR is the reflection factor
      */
-    public Double3 kR = Double3.ZERO;
+    private Double3 kR = Double3.ZERO;
 
     /**
      * kT is the transparency factor
      */
-    public Double3 kT = Double3.ZERO;
+    private Double3 kT = Double3.ZERO;
+
+    // which of the factors are not zero (kept by the setters), so the ray tracer skips the effects
+    // which can't contribute
+    private boolean diffuse = false;
+    private boolean specular = false;
+    private boolean reflective = false;
+    private boolean transparent = false;
 
     /**
      * setter for transparency factor
@@ -34,7 +42,7 @@ public class Material {
      */
     public  Material setKt(Double3 kt){
         this.kT = kt;
-        return this;
+        return update();
     }
 
     /**
@@ -44,7 +52,7 @@ public class Material {
      */
     public Material setKt(double kt){
         this.kT = new Double3(kt);
-        return this;
+        return update();
     }
 
     /**
@@ -54,7 +62,7 @@ public class Material {
      */
     public  Material setKr(Double3 kr){
         this.kR = kr;
-        return this;
+        return update();
     }
 
     /**
@@ -64,7 +72,7 @@ public class Material {
      */
     public Material setKr(double kr){
         this.kR = new Double3(kr);
-        return this;
+        return update();
     }
 
     /**
@@ -74,7 +82,7 @@ public class Material {
      */
     public Material setKd(Double3 kD) {
         this.kD = kD;
-        return this;
+        return update();
     }
 
     /**
@@ -84,7 +92,7 @@ public class Material {
      */
     public Material setKd(double kD) {
         this.kD = new Double3(kD);
-        return this;
+        return update();
     }
 
     /**
@@ -94,7 +102,7 @@ public class Material {
      */
     public Material setKs(Double3 kS) {
         this.kS = kS;
-        return this;
+        return update();
     }
 
     /**
@@ -104,7 +112,7 @@ public class Material {
      */
     public Material setKs(double kS) {
         this.kS = new Double3(kS);
-        return this;
+        return update();
     }
 
     /**
@@ -114,6 +122,98 @@ public class Material {
      */
     public Material setShininess(int nShininess) {
         this.nShininess = nShininess;
+        return update();
+    }
+
+    /**
+     * Material getter
+     * @return the diffuse factor
+     */
+    public Double3 getKd() {
+        return kD;
+    }
+
+    /**
+     * Material getter
+     * @return the specular factor
+     */
+    public Double3 getKs() {
+        return kS;
+    }
+
+    /**
+     * Material getter
+     * @return the shininess factor
+     */
+    public int getShininess() {
+        return nShininess;
+    }
+
+    /**
+     * Material getter
+     * @return the reflection factor
+     */
+    public Double3 getKr() {
+        return kR;
+    }
+
+    /**
+     * Material getter
+     * @return the transparency factor
+     */
+    public Double3 getKt() {
+        return kT;
+    }
+
+    /**
+     * Check whether the material reflects the light diffusely
+     * @return true if kD is not zero
+     */
+    public boolean hasDiffuse() {
+        return diffuse;
+    }
+
+    /**
+     * Check whether the material has specular highlights
+     * @return true if kS is not zero
+     */
+    public boolean hasSpecular() {
+        return specular;
+    }
+
+    /**
+     * Check whether the material reflects rays
+     * @return true if kR is not zero
+     */
+    public boolean hasReflection() {
+        return reflective;
+    }
+
+    /**
+     * Check whether the material refracts rays and lets light through
+     * @return true if kT is not zero
+     */
+    public boolean hasTransparency() {
+        return transparent;
+    }
+
+    /**
+     * Check whether the material blocks the light
+     * @return true if kT is zero
+     */
+    public boolean isOpaque() {
+        return !transparent;
+    }
+
+    /**
+     * Update the flags of the factors after a factor was set
+     * @return the material
+     */
+    private Material update() {
+        diffuse = !kD.equals(Double3.ZERO);
+        specular = !kS.equals(Double3.ZERO);
+        reflective = !kR.equals(Double3.ZERO);
+        transparent = !kT.equals(Double3.ZERO);
         return this;
     }
 }
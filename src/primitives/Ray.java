@@ -13,6 +13,19 @@ public class Ray {
     private final Vector direction;
     private static final double DELTA = 0.1;
 
+    /**
+     * The coordinates of the head point, cached for the bounding box tests
+     */
+    public final double originX, originY, originZ;
+    /**
+     * The inverse of the direction coordinates (infinite for zero coordinates), cached for the bounding box tests
+     */
+    public final double inverseX, inverseY, inverseZ;
+    /**
+     * Whether the direction coordinates are negative, so the ray enters a box through its maximal coordinates
+     */
+    public final boolean negativeX, negativeY, negativeZ;
+
     /**
      * Constructor to initialize a ray based on a head point and a direction vector
      *
@@ -22,6 +35,16 @@ public class Ray {
     public Ray(Point head, Vector direction) {
         this.head = head;
         this.direction = direction.normalize();
+
+        originX = head.getX();
+        originY = head.getY();
+        originZ = head.getZ();
+        inverseX = 1d / this.direction.getX();
+        inverseY = 1d / this.direction.getY();
+        inverseZ = 1d / this.direction.getZ();
+        negativeX = inverseX < 0;
+        negativeY = inverseY < 0;
+        negativeZ = inverseZ < 0;
     }
 
     /**
@@ -41,6 +64,16 @@ public class Ray {
         } else {
             this.head = head;
         }
+
+        originX = this.head.getX();
+        originY = this.head.getY();
+        originZ = this.head.getZ();
+        inverseX = 1d / this.direction.getX();
+        inverseY = 1d / this.direction.getY();
+        inverseZ = 1d / this.direction.getZ();
+        negativeX = inverseX < 0;
+        negativeY = inverseY < 0;
+        negativeZ = inverseZ < 0;
     }
 
 
@@ -62,7 +95,7 @@ public class Ray {
         // if t is zero, return the head point
         if (Util.isZero(t))
             return head;
-        return head.add(direction.scale(t));
+        return new Point(originX + direction.getX() * t, originY + direction.getY() * t, originZ + direction.getZ() * t);
     }
 
     @Override
@@ -0,0 +1,180 @@
+package primitives;
+
+/**
+ * Class Transform represents an affine transformation of the 3D space -
+ * a linear transformation (rotation, scaling...) followed by a translation
+ */
+public class Transform {
+    /**
+     * The transformation matrix, 3 rows of {linear part | translation}
+     */
+    private final double[][] m;
+
+    /**
+     * The inverse transformation, created on demand
+     */
+    private Transform inverse;
+
+    /**
+     * Identity transformation
+     */
+    public static final Transform IDENTITY = new Transform(new double[][]{
+            {1, 0, 0, 0},
+            {0, 1, 0, 0},
+            {0, 0, 1, 0}});
+
+    /**
+     * Constructor to initialize a transformation based on its matrix
+     *
+     * @param m 3 rows of 4 numbers - the linear part and the translation
+     */
+    private Transform(double[][] m) {
+        this.m = m;
+    }
+
+    /**
+     * Create a translation
+     *
+     * @param v the translation vector
+     * @return the transformation
+     */
+    public static Transform translation(Vector v) {
+        return new Transform(new double[][]{
+                {1, 0, 0, v.getX()},
+                {0, 1, 0, v.getY()},
+                {0, 0, 1, v.getZ()}});
+    }
+
+    /**
+     * Create a scaling along the axes
+     *
+     * @param sx scale factor along the X axis
+     * @param sy scale factor along the Y axis
+     * @param sz scale factor along the Z axis
+     * @return the transformation
+     */
+    public static Transform scaling(double sx, double sy, double sz) {
+        if (Util.isZero(sx) || Util.isZero(sy) || Util.isZero(sz))
+            throw new IllegalArgumentException("scale factor can't be zero");
+        return new Transform(new double[][]{
+                {sx, 0, 0, 0},
+                {0, sy, 0, 0},
+                {0, 0, sz, 0}});
+    }
+
+    /**
+     * Create a rotation around an axis through the origin
+     *
+     * @param axis    the axis of the rotation
+     * @param degrees the angle of the rotation in degrees, counterclockwise when looking against the axis
+     * @return the transformation
+     */
+    public static Transform rotation(Vector axis, double degrees) {
+        Vector u = axis.normalize();
+        double x = u.getX(), y = u.getY(), z = u.getZ();
+        double cos = Math.cos(Math.toRadians(degrees));
+        double sin = Math.sin(Math.toRadians(degrees));
+        double t = 1 - cos;
+        // Rodrigues' rotation formula
+        return new Transform(new double[][]{
+                {t * x * x + cos, t * x * y - sin * z, t * x * z + sin * y, 0},
+                {t * x * y + sin * z, t * y * y + cos, t * y * z - sin * x, 0},
+                {t * x * z - sin * y, t * y * z + sin * x, t * z * z + cos, 0}});
+    }
+
+    /**
+     * Compose this transformation with another one which is applied after it
+     *
+     * @param next the transformation to apply after this one
+     * @return the composed transformation
+     */
+    public Transform then(Transform next) {
+        double[][] r = new double[3][4];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++)
+                r[i][j] = next.m[i][0] * m[0][j] + next.m[i][1] * m[1][j] + next.m[i][2] * m[2][j];
+            r[i][3] += next.m[i][3];
+        }
+        return new Transform(r);
+    }
+
+    /**
+     * Transform a point
+     *
+     * @param p the point
+     * @return the transformed point
+     */
+    public Point apply(Point p) {
+        double x = p.getX(), y = p.getY(), z = p.getZ();
+        return new Point(m[0][0] * x + m[0][1] * y + m[0][2] * z + m[0][3],
+                m[1][0] * x + m[1][1] * y + m[1][2] * z + m[1][3],
+                m[2][0] * x + m[2][1] * y + m[2][2] * z + m[2][3]);
+    }
+
+    /**
+     * Transform a direction - only the linear part of the transformation is applied
+     *
+     * @param v the direction
+     * @return the transformed direction (not normalized)
+     */
+    public Vector applyVector(Vector v) {
+        double x = v.getX(), y = v.getY(), z = v.getZ();
+        return new Vector(m[0][0] * x + m[0][1] * y + m[0][2] * z,
+                m[1][0] * x + m[1][1] * y + m[1][2] * z,
+                m[2][0] * x + m[2][1] * y + m[2][2] * z);
+    }
+
+    /**
+     * Transform a normal of a surface, so it stays orthogonal to the transformed surface
+     *
+     * @param n the normal
+     * @return the transformed normal, normalized
+     */
+    public Vector applyNormal(Vector n) {
+        // normals are transformed by the inverse transpose of the linear part
+        double[][] inv = inverse().m;
+        double x = n.getX(), y = n.getY(), z = n.getZ();
+        return new Vector(inv[0][0] * x + inv[1][0] * y + inv[2][0] * z,
+                inv[0][1] * x + inv[1][1] * y + inv[2][1] * z,
+                inv[0][2] * x + inv[1][2] * y + inv[2][2] * z).normalize();
+    }
+
+    /**
+     * Transform a ray
+     *
+     * @param ray the ray
+     * @return the transformed ray
+     */
+    public Ray apply(Ray ray) {
+        return new Ray(apply(ray.getPoint(0)), applyVector(ray.getDirection()));
+    }
+
+    /**
+     * Get the inverse transformation
+     *
+     * @return the transformation which undoes this one
+     * @throws IllegalArgumentException if the transformation can't be inverted
+     */
+    public Transform inverse() {
+        if (inverse != null) return inverse;
+
+        double a = m[0][0], b = m[0][1], c = m[0][2];
+        double d = m[1][0], e = m[1][1], f = m[1][2];
+        double g = m[2][0], h = m[2][1], i = m[2][2];
+        double det = a * (e * i - f * h) - b * (d * i - f * g) + c * (d * h - e * g);
+        if (Util.isZero(det)) throw new IllegalArgumentException("transformation can't be inverted");
+
+        double[][] r = {
+                {(e * i - f * h) / det, (c * h - b * i) / det, (b * f - c * e) / det, 0},
+                {(f * g - d * i) / det, (a * i - c * g) / det, (c * d - a * f) / det, 0},
+                {(d * h - e * g) / det, (b * g - a * h) / det, (a * e - b * d) / det, 0}};
+        // the inverse translation is minus the inverse linear part applied to the translation
+        for (int row = 0; row < 3; row++)
+            r[row][3] = -(r[row][0] * m[0][3] + r[row][1] * m[1][3] + r[row][2] * m[2][3]);
+
+        Transform result = new Transform(r);
+        result.inverse = this;
+        inverse = result;
+        return result;
+    }
+}
@@ -53,4 +53,19 @@ public final class Util {
       return Math.random() * (max - min) + min;
    }
 
+   /** Raise a number to a non-negative integer power by repeated squaring, which is much faster
+    * than {@link Math#pow(double, double)} for the small exponents of the materials' shininess
+    * @param  base     the number
+    * @param  exponent the power
+    * @return          the number raised to the power */
+   public static double pow(double base, int exponent) {
+      if (exponent < 0) return Math.pow(base, exponent);
+      double result = 1d;
+      for (; exponent > 0; exponent >>= 1) {
+         if ((exponent & 1) != 0) result *= base;
+         base *= base;
+      }
+      return result;
+   }
+
 }
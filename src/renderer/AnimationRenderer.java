@@ -0,0 +1,125 @@
+package renderer;
+
+import scene.Scene;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * AnimationRenderer renders a sequence of frames of one scene along a {@link CameraPath}.<br>
+ * The ray tracer is built once and compiles the scene (with its bounding volume hierarchy) on the first frame,
+ * it is shared by all the frames, and every frame is encoded to its numbered image file while the next frame is traced.
+ */
+public class AnimationRenderer {
+    private final Scene scene;
+    private final Camera.Builder cameraBuilder;
+    private final CameraPath path;
+
+    private String name = "animation"; // the prefix of the image files
+    private int frames = 0; // the amount of frames, 0 for a frame per keyframe
+    private int nX = 500; // the horizontal resolution of the frames
+    private int nY = 500; // the vertical resolution of the frames
+
+    /**
+     * Constructor for AnimationRenderer
+     *
+     * @param scene         the scene to render
+     * @param cameraBuilder the builder of the camera, with everything but the location, the direction,
+     *                      the image writer and the ray tracer set
+     * @param path          the path of the camera along the animation
+     */
+    public AnimationRenderer(Scene scene, Camera.Builder cameraBuilder, CameraPath path) {
+        this.scene = scene;
+        this.cameraBuilder = cameraBuilder;
+        this.path = path;
+    }
+
+    /**
+     * Set the name of the animation, the frames are written to images named {@code <name>_<frame>}
+     *
+     * @param name the name of the animation
+     * @return the animation renderer
+     */
+    public AnimationRenderer setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Set the amount of frames in the animation
+     *
+     * @param frames the amount of frames, 0 for a frame per keyframe of the path
+     * @return the animation renderer
+     */
+    public AnimationRenderer setFrames(int frames) {
+        if (frames < 0) throw new IllegalArgumentException("amount of frames can't be negative");
+        this.frames = frames;
+        return this;
+    }
+
+    /**
+     * Set the resolution of the frames
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     * @return the animation renderer
+     */
+    public AnimationRenderer setResolution(int nX, int nY) {
+        if (nX <= 0 || nY <= 0) throw new IllegalArgumentException("resolution must be positive");
+        this.nX = nX;
+        this.nY = nY;
+        return this;
+    }
+
+    /**
+     * Render all the frames of the animation and write them to numbered images
+     *
+     * @return the amount of frames rendered
+     */
+    public int render() {
+        int count = frames == 0 ? path.size() : frames;
+        RayTracerBase rayTracer = new SimpleRayTracer(scene);
+
+        ExecutorService encoder = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> previous = null;
+            for (int frame = 0; frame < count; frame++) {
+                CameraPath.Keyframe keyframe = path.getFrame(frame, count);
+                Camera camera = cameraBuilder
+                        .setLocation(keyframe.p0())
+                        .setDirection(keyframe.vTo(), keyframe.vUp())
+                        .setImageWriter(new ImageWriter(String.format("%s_%04d", name, frame), nX, nY))
+                        .setRayTracer(rayTracer)
+                        .build()
+                        .renderImage();
+
+                // the previous frame was encoded while this one was traced
+                await(previous);
+                previous = encoder.submit(camera::writeToImage);
+            }
+            await(previous);
+        } finally {
+            encoder.shutdown();
+        }
+        return count;
+    }
+
+    /**
+     * Wait for a frame to be written
+     *
+     * @param frame the writing of the frame, or null if there is none
+     */
+    private static void await(Future<?> frame) {
+        if (frame == null) return;
+        try {
+            frame.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while writing a frame", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("failed writing a frame", e.getCause());
+        }
+    }
+}
@@ -2,9 +2,10 @@ package renderer;
 
 import primitives.*;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
@@ -134,6 +135,24 @@ public class Camera implements Cloneable {
         return distance;
     }
 
+    /**
+     * Camera getter
+     *
+     * @return the ray tracer of the camera
+     */
+    public RayTracerBase getRayTracer() {
+        return rayTracer;
+    }
+
+    /**
+     * Camera getter
+     *
+     * @return the image writer of the camera
+     */
+    ImageWriter getImageWriter() {
+        return imageWriter;
+    }
+
 
     /**
      * Camera builder
@@ -312,7 +331,7 @@ public class Camera implements Cloneable {
             if (!isZero(camera.vTo.dotProduct(camera.vRight)) || !isZero(camera.vTo.dotProduct(camera.vUp)) || !isZero(camera.vRight.dotProduct(camera.vUp)))
                 throw new IllegalArgumentException("vTo, vUp and vRight must be orthogonal");
 
-            if (camera.vTo.length() != 1 || camera.vUp.length() != 1 || camera.vRight.length() != 1)
+            if (!isZero(camera.vTo.length() - 1) || !isZero(camera.vUp.length() - 1) || !isZero(camera.vRight.length() - 1))
                 throw new IllegalArgumentException("vTo, vUp and vRight must be normalized");
 
             if (camera.width <= 0 || camera.height <= 0)
@@ -379,17 +398,27 @@ public class Camera implements Cloneable {
                     castRay(nx, ny, j, i);
             return this;
         }
-        List<Thread> threads = new LinkedList<>();
+        runThreads(() -> {
+            Pixel pixel;
+            while ((pixel = Pixel.nextPixel()) != null)
+                castRay(nx, ny, pixel.col(), pixel.row());
+        });
+
+        return this;
+    }
+
+    /**
+     * Run a task on the rendering threads and wait for all of them to finish
+     *
+     * @param task the task of every thread, which takes its pixels from a queue shared by the threads
+     */
+    private void runThreads(Runnable task) {
+        List<Thread> threads = new ArrayList<>();
         int availableProcessors = threadsCount == -1 ? Runtime.getRuntime().availableProcessors()
                 : threadsCount;
 
-        for (int t = 0; t < availableProcessors; t++) {
-            threads.add(new Thread(() -> {
-                Pixel pixel;
-                while ((pixel = Pixel.nextPixel()) != null)
-                    castRay(nx, ny, pixel.col(), pixel.row());
-            }));
-        }
+        for (int t = 0; t < availableProcessors; t++)
+            threads.add(new Thread(task));
         for (var thread : threads)
             thread.start();
         try {
@@ -397,8 +426,6 @@ public class Camera implements Cloneable {
                 thread.join();
         } catch (InterruptedException ignore) {
         }
-
-        return this;
     }
 
     /**
@@ -434,6 +461,47 @@ public class Camera implements Cloneable {
      * @param j  the x index of the pixel
      */
     private void castRay(int nx, int ny, int i, int j) {
+        imageWriter.writePixel(j, i, tracePixel(nx, ny, i, j));
+        Pixel.pixelDone();
+    }
+
+    /**
+     * Render a row of pixels without writing them to the image writer.
+     * The pixels are traced on the threads set by {@link Builder#setMultithreading}
+     *
+     * @param y    the y index of the row
+     * @param x    the x index of the first pixel in the row
+     * @param size the amount of pixels to render
+     * @return the colors of the pixels, ordered by their x index
+     */
+    Color[] renderRow(int y, int x, int size) {
+        int nx = imageWriter.getNx();
+        int ny = imageWriter.getNy();
+        Color[] row = new Color[size];
+        if (threadsCount == 0) {
+            for (int k = 0; k < size; k++)
+                row[k] = tracePixel(nx, ny, y, x + k);
+            return row;
+        }
+        AtomicInteger next = new AtomicInteger();
+        runThreads(() -> {
+            int k;
+            while ((k = next.getAndIncrement()) < size)
+                row[k] = tracePixel(nx, ny, y, x + k);
+        });
+        return row;
+    }
+
+    /**
+     * Trace the rays of a pixel and average their colors
+     *
+     * @param nx the number of pixels in the x direction
+     * @param ny the number of pixels in the y direction
+     * @param i  the y index of the pixel
+     * @param j  the x index of the pixel
+     * @return the color of the pixel
+     */
+    private Color tracePixel(int nx, int ny, int i, int j) {
         Ray mainRay = constructRay(nx, ny, j, i);
         Color accumulatedColor = Color.BLACK;
 
@@ -471,9 +539,7 @@ public class Camera implements Cloneable {
                 }
             }
         }
-        Color averageColor = accumulatedColor.scale(1d / (amountOfRays_AA * amountOfRays_AA));
-        imageWriter.writePixel(j, i, averageColor);
-        Pixel.pixelDone();
+        return accumulatedColor.scale(1d / (amountOfRays_AA * amountOfRays_AA));
     }
 
 
@@ -485,7 +551,7 @@ public class Camera implements Cloneable {
      * @return the list of rays in the circle
      */
     public List<Ray> constructRaysGridFromCamera(int n, Ray ray) {
-        List<Ray> myRays = new LinkedList<>(); //the list of all the rays
+        List<Ray> myRays = new ArrayList<>(n * n); //the list of all the rays
 
         double t = depthOfField / (vTo.dotProduct(ray.getDirection())); // distance from the focusPoint on the aperture grid to the focus focusPoint ( found with the cosinus)
         Point focusPoint = ray.getPoint(t); // we found the focus focusPoint
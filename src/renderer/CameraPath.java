@@ -0,0 +1,201 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static primitives.Util.isZero;
+
+/**
+ * CameraPath class represents the path of a camera along the frames of an animation.<br>
+ * The path is defined by keyframes of the camera location, direction and up direction,
+ * which are spread evenly along the animation: the location is interpolated linearly between them
+ * and the directions are rotated (spherically interpolated). A looping path continues from its last keyframe
+ * back to the first, so its last frame comes just before the first one.<br>
+ * A {@link #turntable turntable} path is interpolated by its angle around the target, so it stays on its circle.
+ */
+public class CameraPath {
+    /**
+     * A keyframe of the path
+     *
+     * @param p0  the location of the camera
+     * @param vTo the direction of the camera
+     * @param vUp the up direction of the camera
+     */
+    public record Keyframe(Point p0, Vector vTo, Vector vUp) {
+    }
+
+    /**
+     * The circle of a turntable path
+     *
+     * @param target the point the camera looks at, on the axis of the turntable
+     * @param radius the distance of the camera from the axis
+     * @param height the height of the camera above the target
+     */
+    private record Orbit(Point target, double radius, double height) {
+        /**
+         * Calculate the camera at an angle along the circle
+         *
+         * @param angle the angle around the axis, from the X axis
+         * @return the camera, looking at the target
+         */
+        Keyframe frame(double angle) {
+            Point p0 = target.add(new Vector(Math.cos(angle) * radius, Math.sin(angle) * radius, height));
+            Vector vTo = target.subtract(p0).normalize();
+            Vector vRight = vTo.crossProduct(new Vector(0, 0, 1));
+            return new Keyframe(p0, vTo, vRight.crossProduct(vTo).normalize());
+        }
+    }
+
+    private final List<Keyframe> keyframes = new ArrayList<>();
+    private boolean loop = false; // whether the path continues from the last keyframe back to the first
+    private Orbit orbit = null; // the circle of a turntable path, null for other paths
+
+    /**
+     * Add a keyframe to the end of the path
+     *
+     * @param p0  the location of the camera
+     * @param vTo the direction of the camera
+     * @param vUp the up direction of the camera, orthogonal to vTo
+     * @return the camera path
+     */
+    public CameraPath addKeyframe(Point p0, Vector vTo, Vector vUp) {
+        if (!isZero(vTo.dotProduct(vUp)))
+            throw new IllegalArgumentException("vTo and vUp must be orthogonal");
+        if (orbit != null) throw new IllegalStateException("a turntable path can't have more keyframes");
+        Keyframe keyframe = new Keyframe(p0, vTo.normalize(), vUp.normalize());
+        if (!keyframes.isEmpty()) checkRotation(keyframes.getLast(), keyframe);
+        if (loop) checkRotation(keyframe, keyframes.getFirst());
+        keyframes.add(keyframe);
+        return this;
+    }
+
+    /**
+     * Set whether the path loops - continues from its last keyframe back to the first, so an animation of it
+     * can be played over and over.
+     *
+     * @param loop true for a looping path
+     * @return the camera path
+     * @throws IllegalArgumentException if the directions of the last and the first keyframes are opposite
+     */
+    public CameraPath setLoop(boolean loop) {
+        if (orbit != null) throw new IllegalStateException("a turntable path always loops");
+        if (loop && keyframes.size() > 1) checkRotation(keyframes.getLast(), keyframes.getFirst());
+        this.loop = loop;
+        return this;
+    }
+
+    /**
+     * Check that the directions of the camera can be rotated from one keyframe to the next
+     *
+     * @param from the keyframe
+     * @param to   the next keyframe
+     * @throws IllegalArgumentException if the directions or the up directions of the keyframes are opposite,
+     *                                  so there is no single rotation between them
+     */
+    private static void checkRotation(Keyframe from, Keyframe to) {
+        if (isZero(from.vTo().dotProduct(to.vTo()) + 1) || isZero(from.vUp().dotProduct(to.vUp()) + 1))
+            throw new IllegalArgumentException("consecutive keyframes can't have opposite directions");
+    }
+
+    /**
+     * Create a turntable path which circles the camera around a vertical (Z) axis, looking at a target.<br>
+     * The keyframes are spread evenly around the circle, and the path loops: an animation with a frame
+     * per keyframe ends one keyframe before its start.
+     *
+     * @param target    the point the camera looks at, on the axis of the turntable
+     * @param radius    the distance of the camera from the axis
+     * @param height    the height of the camera above the target
+     * @param keyframes the amount of keyframes along the circle
+     * @return the camera path
+     */
+    public static CameraPath turntable(Point target, double radius, double height, int keyframes) {
+        if (radius <= 0) throw new IllegalArgumentException("radius must be positive");
+        if (keyframes < 2) throw new IllegalArgumentException("a turntable needs at least 2 keyframes");
+
+        CameraPath path = new CameraPath();
+        Orbit orbit = new Orbit(target, radius, height);
+        // the keyframes of opposite sides of the circle are not checked, the path is interpolated by angle
+        for (int k = 0; k < keyframes; k++)
+            path.keyframes.add(orbit.frame(2 * Math.PI * k / keyframes));
+        path.loop = true;
+        path.orbit = orbit;
+        return path;
+    }
+
+    /**
+     * Get the amount of keyframes in the path
+     *
+     * @return the amount of keyframes
+     */
+    public int size() {
+        return keyframes.size();
+    }
+
+    /**
+     * Get the camera of a frame along the path
+     *
+     * @param frame  the index of the frame
+     * @param frames the amount of frames in the animation
+     * @return the interpolated keyframe of the camera, with orthogonal directions
+     */
+    public Keyframe getFrame(int frame, int frames) {
+        if (keyframes.isEmpty()) throw new IllegalStateException("camera path has no keyframes");
+        if (frame < 0 || frame >= frames) throw new IllegalArgumentException("frame is out of the animation");
+        if (keyframes.size() == 1 || frames == 1) return keyframes.getFirst();
+
+        // a looping path spreads the frames over one more segment, back to the first keyframe
+        double s = loop ? (double) frame * keyframes.size() / frames
+                : (double) frame * (keyframes.size() - 1) / (frames - 1);
+        int k = Math.min((int) s, loop ? keyframes.size() - 1 : keyframes.size() - 2);
+        double t = s - k;
+        Keyframe from = keyframes.get(k);
+        Keyframe to = keyframes.get((k + 1) % keyframes.size());
+        if (isZero(t)) return from;
+        if (isZero(t - 1)) return to;
+        if (orbit != null) return orbit.frame(2 * Math.PI * s / keyframes.size());
+
+        Point p0 = lerp(from.p0(), to.p0(), t);
+        Vector vTo = slerp(from.vTo(), to.vTo(), t);
+        Vector vUp = slerp(from.vUp(), to.vUp(), t);
+        // remove the part of the up direction along vTo so the camera stays orthogonal
+        double upTo = vUp.dotProduct(vTo);
+        if (!isZero(upTo)) vUp = vUp.subtract(vTo.scale(upTo));
+        return new Keyframe(p0, vTo, vUp.normalize());
+    }
+
+    /**
+     * Linear interpolation between two points
+     *
+     * @param a the point at t = 0
+     * @param b the point at t = 1
+     * @param t the interpolation parameter
+     * @return the interpolated point
+     */
+    private static Point lerp(Point a, Point b, double t) {
+        return new Point(a.getX() + (b.getX() - a.getX()) * t,
+                a.getY() + (b.getY() - a.getY()) * t,
+                a.getZ() + (b.getZ() - a.getZ()) * t);
+    }
+
+    /**
+     * Spherical interpolation between two unit vectors - the rotation of the first towards the second
+     * at a constant angular speed
+     *
+     * @param a the vector at t = 0
+     * @param b the vector at t = 1, not opposite to a
+     * @param t the interpolation parameter
+     * @return the interpolated unit vector
+     */
+    private static Vector slerp(Vector a, Vector b, double t) {
+        double angle = Math.acos(Math.max(-1, Math.min(1, a.dotProduct(b))));
+        if (isZero(angle)) return a;
+        double sin = Math.sin(angle);
+        double wa = Math.sin((1 - t) * angle) / sin, wb = Math.sin(t * angle) / sin;
+        return new Vector(a.getX() * wa + b.getX() * wb,
+                a.getY() * wa + b.getY() * wb,
+                a.getZ() * wa + b.getZ() * wb).normalize();
+    }
+}
@@ -78,5 +78,14 @@ public class ImageWriter {
         image.setRGB(xIndex, yIndex, color.getColor().getRGB());
     }
 
+    /** The function getPixel reads the color of a specific pixel back from the
+     * pixel color matrix
+     * @param  xIndex X-axis index of the pixel
+     * @param  yIndex Y-axis index of the pixel
+     * @return        the color written to the pixel */
+    public Color getPixel(int xIndex, int yIndex) {
+        return new Color(new java.awt.Color(image.getRGB(xIndex, yIndex)));
+    }
+
 }
 
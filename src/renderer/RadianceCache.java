@@ -0,0 +1,149 @@
+package renderer;
+
+import geometries.Geometry;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A world-space cache of the shaded colors of surface points, in a hash grid of cubic cells.<br>
+ * A cached color is reused for the points of the same geometry within half a cell of it, whose facing normal
+ * is close to its own - several cached colors are interpolated by their distance. The cached colors around a point
+ * must also agree within an error bound: where they differ more (e.g. across a shadow edge) the point is shaded
+ * again, and its color is cached as well, so the cache gets denser where the lighting changes.
+ * The cache is shared by the rendering threads, and each cell holds a bounded amount of colors.
+ */
+class RadianceCache {
+    // the most colors in a cell, more are not stored
+    private static final int MAX_ENTRIES = 8;
+    // the least cosine between the normals of a cached color and of a point it is reused for
+    private static final double MIN_NORMAL_COS = 0.9;
+    // the most difference between the brightest and the darkest cached colors which are interpolated,
+    // relative to the brightest
+    private static final double MAX_ERROR = 0.1;
+
+    /**
+     * A cached color of a point
+     *
+     * @param geometry the geometry of the point
+     * @param point    the point
+     * @param normal   the normal of the geometry at the point, facing the side it was shaded from
+     * @param color    the color
+     */
+    private record Entry(Geometry geometry, Point point, Vector normal, Color color) { }
+
+    private final double spacing;
+    private final double radius;
+    private final ConcurrentHashMap<Long, Entry[]> cells = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor for RadianceCache
+     *
+     * @param spacing the size of the cells, a color is reused within half of it
+     */
+    RadianceCache(double spacing) {
+        if (spacing <= 0) throw new IllegalArgumentException("spacing must be positive");
+        this.spacing = spacing;
+        this.radius = spacing / 2;
+    }
+
+    /**
+     * Getter for the size of the cells
+     *
+     * @return the size of the cells
+     */
+    double getSpacing() {
+        return spacing;
+    }
+
+    /**
+     * Get the color of a point, interpolated from the cached colors around it
+     *
+     * @param geometry the geometry of the point
+     * @param point    the point
+     * @param normal   the normal of the geometry at the point, facing the side it is shaded from
+     * @return the color, or null if no cached color is close enough or the close ones differ too much
+     */
+    Color get(Geometry geometry, Point point, Vector normal) {
+        // the cells of the cached colors within the radius are the 2 nearest cells in each axis
+        long x = cell(point.getX() - radius), y = cell(point.getY() - radius), z = cell(point.getZ() - radius);
+        Color color = Color.BLACK;
+        double weights = 0;
+        double darkest = Double.POSITIVE_INFINITY, brightest = 0;
+        for (int i = 0; i < 8; i++) {
+            Entry[] entries = cells.get(key(x + (i & 1), y + (i >> 1 & 1), z + (i >> 2)));
+            if (entries == null) continue;
+            for (Entry entry : entries) {
+                // the geometries of instances are compared by their instance and shared geometry
+                if (!entry.geometry.equals(geometry) || entry.normal.dotProduct(normal) < MIN_NORMAL_COS) continue;
+                double weight = 1 - entry.point.distance(point) / radius;
+                if (weight <= 0) continue;
+                color = color.add(entry.color.scale(weight));
+                weights += weight;
+                double brightness = entry.color.sum();
+                darkest = Math.min(darkest, brightness);
+                brightest = Math.max(brightest, brightness);
+            }
+        }
+        if (weights == 0 || brightest - darkest > MAX_ERROR * brightest) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return color.scale(1 / weights);
+    }
+
+    /**
+     * Cache the color of a point
+     *
+     * @param geometry the geometry of the point
+     * @param point    the point
+     * @param normal   the normal of the geometry at the point, facing the side it was shaded from
+     * @param color    the color
+     */
+    void put(Geometry geometry, Point point, Vector normal, Color color) {
+        Entry[] entry = {new Entry(geometry, point, normal, color)};
+        cells.merge(key(cell(point.getX()), cell(point.getY()), cell(point.getZ())), entry,
+                (entries, added) -> entries.length >= MAX_ENTRIES ? entries : append(entries, added[0]));
+    }
+
+    /**
+     * Creates a report of the lookups which were answered by the cache
+     *
+     * @return the report
+     */
+    String getStatistics() {
+        long found = hits.sum();
+        long lookups = found + misses.sum();
+        return String.format("radiance cache hits: %d of %d (%.2f%%)",
+                found, lookups, lookups == 0 ? 0d : 100d * found / lookups);
+    }
+
+    /**
+     * Resets the statistics of the lookups
+     */
+    void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    private long cell(double coordinate) {
+        return (long) Math.floor(coordinate / spacing);
+    }
+
+    private static long key(long x, long y, long z) {
+        return (x & 0x1FFFFF) << 42 | (y & 0x1FFFFF) << 21 | z & 0x1FFFFF;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] result = Arrays.copyOf(entries, entries.length + 1);
+        result[entries.length] = entry;
+        return result;
+    }
+}
@@ -0,0 +1,411 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * RenderCoordinator renders the image of a camera by splitting it into tiles and dispatching
+ * the tiles to {@link RenderWorker} processes, which may run on this machine or on other ones.<br>
+ * Every worker gets the scene JSON, the acceleration structure of the scene, the settings of the ray tracer
+ * and the camera once, then pulls tiles one at a time and streams the rendered rows back. Idle workers steal in-flight tiles once the queue is empty, and tiles of
+ * workers which die or stop answering are dispatched again.
+ */
+public class RenderCoordinator {
+    /**
+     * Tile id which tells a worker there is no more work
+     */
+    private static final int SHUTDOWN = -1;
+    /**
+     * Milliseconds between the checks whether the local worker processes are still running
+     */
+    private static final int POLL_INTERVAL = 100;
+
+    private final Camera camera;
+    private final byte[] scene;
+
+    private int tileSize = 32; // the width and height of a tile in pixels
+    private int localWorkers = 0; // the amount of worker processes to start on this machine
+    private int port = 0; // the port to listen on, 0 for any free port
+    private int timeout = 60000; // milliseconds a worker may stay silent before it is considered dead
+    private String workerClassPath = System.getProperty("java.class.path"); // the class path of the local workers
+
+    private final Deque<Tile> pending = new ArrayDeque<>();
+    private final List<Tile> inFlight = new LinkedList<>();
+    private final List<Socket> connections = new LinkedList<>();
+    private final Set<Socket> busy = new HashSet<>(); // connections of workers which render a tile
+    private int[] assignees; // the amount of workers rendering each tile
+    private boolean[] done;
+    private int remaining;
+    private long lastProgress;
+
+    /**
+     * Constructor for RenderCoordinator
+     *
+     * @param camera    the camera whose image is rendered, its image writer receives the pixels
+     * @param scenePath the path to the JSON file of the scene
+     * @throws IOException if the scene file can't be read
+     */
+    public RenderCoordinator(Camera camera, String scenePath) throws IOException {
+        this.camera = camera;
+        this.scene = Files.readAllBytes(Path.of(scenePath));
+    }
+
+    /**
+     * Set the size of the tiles
+     *
+     * @param tileSize the width and height of a tile in pixels
+     * @return the render coordinator
+     */
+    public RenderCoordinator setTileSize(int tileSize) {
+        if (tileSize < 1) throw new IllegalArgumentException("tile size must be positive");
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Set the amount of worker processes started on this machine when rendering
+     *
+     * @param localWorkers the amount of local workers
+     * @return the render coordinator
+     */
+    public RenderCoordinator setLocalWorkers(int localWorkers) {
+        if (localWorkers < 0) throw new IllegalArgumentException("amount of workers can't be negative");
+        this.localWorkers = localWorkers;
+        return this;
+    }
+
+    /**
+     * Set the port which the workers connect to
+     *
+     * @param port the port, 0 for any free port
+     * @return the render coordinator
+     */
+    public RenderCoordinator setPort(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * Set the time a worker may stay silent before its tile is dispatched to another worker.
+     * The render fails if no worker makes progress for this long.
+     *
+     * @param timeout the timeout in milliseconds
+     * @return the render coordinator
+     */
+    public RenderCoordinator setTimeout(int timeout) {
+        if (timeout <= 0) throw new IllegalArgumentException("timeout must be positive");
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Set the class path of the worker processes started on this machine
+     *
+     * @param workerClassPath the class path, the class path of this JVM by default
+     * @return the render coordinator
+     */
+    public RenderCoordinator setWorkerClassPath(String workerClassPath) {
+        this.workerClassPath = workerClassPath;
+        return this;
+    }
+
+    /**
+     * Render the image of the camera with the workers
+     *
+     * @return the camera, with the rendered image in its image writer
+     * @throws IOException if the coordinator can't listen for workers
+     */
+    public Camera render() throws IOException {
+        ImageWriter imageWriter = camera.getImageWriter();
+        initialize(imageWriter.getNx(), imageWriter.getNy());
+
+        List<Process> processes = new LinkedList<>();
+        List<Thread> threads = new LinkedList<>();
+        try (ServerSocket server = new ServerSocket(port)) {
+            for (int i = 0; i < localWorkers; i++)
+                processes.add(startLocalWorker(server.getLocalPort()));
+
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        Socket socket = server.accept();
+                        Thread thread = new Thread(() -> serve(socket, imageWriter));
+                        synchronized (this) {
+                            connections.add(socket);
+                            threads.add(thread);
+                            lastProgress = System.currentTimeMillis();
+                        }
+                        thread.start();
+                    }
+                } catch (IOException ignore) {
+                    // the server socket is closed when the image is done
+                }
+            });
+            acceptor.start();
+
+            awaitTiles(processes);
+        } finally {
+            shutdown(threads, processes);
+        }
+        return camera;
+    }
+
+    /**
+     * Split the image into tiles and reset the dispatching state
+     *
+     * @param nX the amount of pixels in a row of the image
+     * @param nY the amount of rows in the image
+     */
+    private synchronized void initialize(int nX, int nY) {
+        pending.clear();
+        inFlight.clear();
+        connections.clear();
+        busy.clear();
+        for (int y = 0; y < nY; y += tileSize)
+            for (int x = 0; x < nX; x += tileSize)
+                pending.add(new Tile(pending.size(), x, y, Math.min(tileSize, nX - x), Math.min(tileSize, nY - y)));
+        assignees = new int[pending.size()];
+        done = new boolean[pending.size()];
+        remaining = pending.size();
+        lastProgress = System.currentTimeMillis();
+    }
+
+    /**
+     * Wait until all the tiles are rendered
+     *
+     * @param processes the local worker processes
+     * @throws IllegalStateException if no worker made progress for longer than the timeout,
+     *                               or if all the local workers exited and no worker is connected
+     */
+    private synchronized void awaitTiles(List<Process> processes) {
+        while (remaining > 0) {
+            long silence = System.currentTimeMillis() - lastProgress;
+            if (silence >= timeout)
+                throw new IllegalStateException("no render worker made progress for " + silence + "ms");
+            if (!processes.isEmpty() && processes.stream().noneMatch(Process::isAlive)
+                    && connections.stream().allMatch(Socket::isClosed))
+                throw new IllegalStateException("all the local render workers exited, the first with exit code "
+                        + processes.getFirst().exitValue());
+            try {
+                // local workers which die at startup never connect, so their processes are checked regularly
+                wait(processes.isEmpty() ? timeout - silence : Math.min(timeout - silence, POLL_INTERVAL));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for render workers", e);
+            }
+        }
+    }
+
+    /**
+     * Get the next tile for a worker. When there are no pending tiles, the worker steals
+     * a tile which another worker is still rendering.
+     *
+     * @param socket the connection to the worker
+     * @return the tile to render, or null if the image is done
+     */
+    private synchronized Tile nextTile(Socket socket) {
+        while (remaining > 0) {
+            Tile tile = pending.poll();
+            if (tile == null)
+                // steal the oldest tile which only one worker renders
+                for (Tile t : inFlight)
+                    if (!done[t.id()] && assignees[t.id()] == 1) {
+                        tile = t;
+                        break;
+                    }
+            if (tile != null) {
+                if (assignees[tile.id()]++ == 0) inFlight.add(tile);
+                busy.add(socket);
+                return tile;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Release a tile from a worker, dispatching it again if the worker didn't finish it
+     * and no other worker renders it
+     *
+     * @param socket   the connection to the worker
+     * @param tile     the tile
+     * @param finished whether the worker sent all the rows of the tile
+     */
+    private synchronized void release(Socket socket, Tile tile, boolean finished) {
+        busy.remove(socket);
+        if (finished && !done[tile.id()]) {
+            done[tile.id()] = true;
+            --remaining;
+        }
+        if (--assignees[tile.id()] == 0) {
+            inFlight.remove(tile);
+            if (!done[tile.id()]) pending.addFirst(tile);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Mark that a worker made progress
+     */
+    private synchronized void progress() {
+        lastProgress = System.currentTimeMillis();
+    }
+
+    /**
+     * Send tiles to a worker and write the rows it sends back into the image, until the image is done
+     * or the worker dies
+     *
+     * @param socket      the connection to the worker
+     * @param imageWriter the image writer of the camera
+     */
+    private void serve(Socket socket, ImageWriter imageWriter) {
+        Tile tile = null;
+        try (socket) {
+            socket.setSoTimeout(timeout);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            writeSetup(out);
+
+            while ((tile = nextTile(socket)) != null) {
+                writeTile(out, tile);
+                for (int i = 0; i < tile.height(); i++) {
+                    int id = in.readInt();
+                    int y = in.readInt();
+                    if (id != tile.id() || y < tile.y() || y >= tile.y() + tile.height())
+                        throw new IOException("worker sent a row of the wrong tile");
+                    for (int x = tile.x(); x < tile.x() + tile.width(); x++)
+                        imageWriter.writePixel(x, y, new Color(new java.awt.Color(in.readInt())));
+                    progress();
+                }
+                release(socket, tile, true);
+                tile = null;
+            }
+            out.writeInt(SHUTDOWN);
+            out.flush();
+        } catch (IOException ignore) {
+            // the worker died, stopped answering or was shut down
+        } finally {
+            if (tile != null) release(socket, tile, false);
+        }
+    }
+
+    /**
+     * Send the scene, the ray tracer settings and the camera to a worker, see {@link RenderWorker#readSetup}
+     *
+     * @param out the stream to the worker
+     * @throws IOException if writing to the worker fails
+     */
+    private void writeSetup(DataOutputStream out) throws IOException {
+        out.writeInt(scene.length);
+        out.write(scene);
+        RayTracerBase rayTracer = camera.getRayTracer();
+        // the acceleration structure may have been chosen after the scene was read from its file
+        out.writeUTF(rayTracer.scene.getAcceleration().name());
+        SimpleRayTracer simple = rayTracer instanceof SimpleRayTracer s ? s : new SimpleRayTracer(rayTracer.scene);
+        out.writeInt(simple.getLightSamples());
+        out.writeInt(simple.getShadowSamples());
+        out.writeDouble(simple.getRussianRoulette());
+        out.writeDouble(simple.getRadianceCache());
+        for (var point : List.of(camera.getP0(), camera.getVTo(), camera.getVUp())) {
+            out.writeDouble(point.getX());
+            out.writeDouble(point.getY());
+            out.writeDouble(point.getZ());
+        }
+        out.writeDouble(camera.getWidth());
+        out.writeDouble(camera.getHeight());
+        out.writeDouble(camera.getDistance());
+        out.writeInt(camera.getImageWriter().getNx());
+        out.writeInt(camera.getImageWriter().getNy());
+        out.writeInt(camera.getAmountOfRaysAA());
+        out.writeInt(camera.getAmountOfRaysDOF());
+        out.writeDouble(camera.getAperture());
+        out.writeDouble(camera.getDepthOfField());
+    }
+
+    /**
+     * Send a tile to a worker, see {@link RenderWorker#readTile}
+     *
+     * @param out  the stream to the worker
+     * @param tile the tile
+     * @throws IOException if writing to the worker fails
+     */
+    private void writeTile(DataOutputStream out, Tile tile) throws IOException {
+        out.writeInt(tile.id());
+        out.writeInt(tile.x());
+        out.writeInt(tile.y());
+        out.writeInt(tile.width());
+        out.writeInt(tile.height());
+        out.flush();
+    }
+
+    /**
+     * Start a worker process on this machine. The local workers share the cores of the machine
+     *
+     * @param port the port the worker connects to
+     * @return the worker process
+     * @throws IOException if the process can't be started
+     */
+    private Process startLocalWorker(int port) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / localWorkers);
+        return new ProcessBuilder(java, "-cp", workerClassPath,
+                RenderWorker.class.getName(), "localhost", String.valueOf(port), String.valueOf(threads))
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Stop serving the workers once the image is done or the render failed
+     *
+     * @param threads   the threads serving the workers
+     * @param processes the local worker processes
+     */
+    private void shutdown(List<Thread> threads, List<Process> processes) {
+        List<Thread> serving;
+        synchronized (this) {
+            // idle workers are sent a shutdown by their threads,
+            // the others are still rendering stolen tiles which nobody needs anymore
+            remaining = 0;
+            notifyAll();
+            close(busy);
+            serving = new ArrayList<>(threads);
+        }
+        try {
+            for (Thread thread : serving)
+                thread.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            close(connections);
+        }
+        for (Process process : processes)
+            process.destroy();
+    }
+
+    /**
+     * Close connections to workers
+     *
+     * @param sockets the connections to close
+     */
+    private static void close(Collection<Socket> sockets) {
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
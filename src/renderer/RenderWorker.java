@@ -0,0 +1,122 @@
+package renderer;
+
+import geometries.Acceleration;
+import org.json.simple.parser.ParseException;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import scene.JsonScene;
+import scene.Scene;
+
+import java.io.*;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RenderWorker renders tiles of an image for a {@link RenderCoordinator} which runs in another JVM.<br>
+ * The worker receives the scene, the settings of the ray tracer and the camera from the coordinator,
+ * builds its own camera and then renders the tiles it is given, streaming every row back as soon as it is done.
+ * Start a worker with {@code java renderer.RenderWorker <host> <port> [threads]}
+ */
+public class RenderWorker {
+
+    /**
+     * Don't let anyone instantiate this class
+     */
+    private RenderWorker() {
+    }
+
+    /**
+     * Connect to a render coordinator and render tiles until it shuts the worker down
+     *
+     * @param args the host and the port of the coordinator, and optionally the amount of rendering threads
+     *             (see {@link Camera.Builder#setMultithreading}), by default all the cores but the spare ones
+     * @throws IOException    if the connection to the coordinator fails
+     * @throws ParseException if the scene sent by the coordinator is not legal JSON
+     */
+    public static void main(String[] args) throws IOException, ParseException {
+        if (args.length != 2 && args.length != 3)
+            throw new IllegalArgumentException("usage: RenderWorker <host> <port> [threads]");
+        int threads = args.length == 3 ? Integer.parseInt(args[2]) : -2;
+
+        try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            Camera camera = readSetup(in, threads);
+            Tile tile;
+            while ((tile = readTile(in)) != null) {
+                for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+                    Color[] row = camera.renderRow(y, tile.x(), tile.width());
+                    out.writeInt(tile.id());
+                    out.writeInt(y);
+                    for (Color color : row)
+                        out.writeInt(color.getColor().getRGB());
+                    // stream the row right away so the coordinator keeps it even if we die later
+                    out.flush();
+                }
+            }
+        } catch (EOFException | SocketException ignore) {
+            // the coordinator finished the image without waiting for this worker
+        }
+    }
+
+    /**
+     * Read the scene, the ray tracer settings and the camera sent by {@link RenderCoordinator}
+     * and build a camera for them
+     *
+     * @param in      the stream from the coordinator
+     * @param threads the amount of threads rendering the rows, see {@link Camera.Builder#setMultithreading}
+     * @return the camera of the worker
+     * @throws IOException    if reading from the coordinator fails
+     * @throws ParseException if the scene is not legal JSON
+     */
+    static Camera readSetup(DataInputStream in, int threads) throws IOException, ParseException {
+        byte[] json = new byte[in.readInt()];
+        in.readFully(json);
+        Scene scene = JsonScene.importScene(new StringReader(new String(json, StandardCharsets.UTF_8)));
+        scene.setAcceleration(Acceleration.valueOf(in.readUTF()));
+        SimpleRayTracer rayTracer = new SimpleRayTracer(scene)
+                .setLightSamples(in.readInt())
+                .setShadowSamples(in.readInt())
+                .setRussianRoulette(in.readDouble())
+                .setRadianceCache(in.readDouble());
+
+        Point p0 = new Point(in.readDouble(), in.readDouble(), in.readDouble());
+        Vector vTo = new Vector(in.readDouble(), in.readDouble(), in.readDouble());
+        Vector vUp = new Vector(in.readDouble(), in.readDouble(), in.readDouble());
+        double width = in.readDouble();
+        double height = in.readDouble();
+        double distance = in.readDouble();
+        int nX = in.readInt();
+        int nY = in.readInt();
+
+        return Camera.getBuilder()
+                .setLocation(p0)
+                .setDirection(vTo, vUp)
+                .setVpSize(width, height)
+                .setVpDistance(distance)
+                .setAmountOfRaysAA(in.readInt())
+                .setAmountOfRaysDOF(in.readInt())
+                .setAperture(in.readDouble())
+                .setDepthOfField(in.readDouble())
+                .setImageWriter(new ImageWriter(scene.name, nX, nY))
+                .setRayTracer(rayTracer)
+                .setMultithreading(threads)
+                .build();
+    }
+
+    /**
+     * Read the next tile sent by {@link RenderCoordinator}
+     *
+     * @param in the stream from the coordinator
+     * @return the tile to render, or null if the coordinator has no more work
+     * @throws IOException if reading from the coordinator fails
+     */
+    static Tile readTile(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        if (id < 0) return null;
+        return new Tile(id, in.readInt(), in.readInt(), in.readInt(), in.readInt());
+    }
+}
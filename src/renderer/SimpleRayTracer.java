@@ -1,11 +1,18 @@
 package renderer;
 
+import geometries.Geometry;
+import geometries.HitRecord;
 import geometries.Intersectable.GeoPoint;
+import lighting.AreaLight;
 import lighting.LightSource;
+import lighting.LightTree;
 import primitives.*;
+import scene.RenderScene;
 import scene.Scene;
 
-import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 
 /**
@@ -17,8 +24,38 @@ public class SimpleRayTracer extends RayTracerBase {
     private static final int MAX_CALC_COLOR_LEVEL = 10;
     private static final double MIN_CALC_COLOR_K = 0.001;
 
+    // the amount of lights sampled at each point, 0 for shading all the lights
+    private int lightSamples = 0;
+    // the attenuation below which secondary rays are terminated by russian roulette, 0 for none
+    private double rouletteThreshold = 0;
+    // the cache of the local effects of the points hit by secondary rays, null for none
+    private RadianceCache radianceCache = null;
+    // the side of the grid of shadow rays to an area light in its penumbra, 0 for hard shadows
+    private int shadowGrid = 0;
+
+    // accepts any intersection, for testing a cached occluder
+    private static final Predicate<HitRecord> ANY_HIT = hit -> true;
+
+    // the compiled scene, created when the first ray is traced
+    private volatile RenderScene compiled = null;
+
+    // the last opaque occluder of each light in each thread - neighbouring shading points are usually
+    // blocked from a light by the same geometry, so it is tested before the shadow ray traverses the scene
+    private final ThreadLocal<Geometry[]> occluders =
+            ThreadLocal.withInitial(() -> new Geometry[compiled.lights.size()]);
+    // the buffer of each thread for the indices of the lights which reach a point
+    private final ThreadLocal<int[]> reachingLights =
+            ThreadLocal.withInitial(() -> new int[compiled.lights.size()]);
+    // the stack of the secondary rays of each thread, still to be traced
+    private final ThreadLocal<RayStack> rayStacks = ThreadLocal.withInitial(RayStack::new);
+    // statistics of the shadow rays blocked by the cached occluder, and of those which traversed the scene
+    private final LongAdder occluderHits = new LongAdder();
+    private final LongAdder occluderMisses = new LongAdder();
+
     /**
-     * Constructor to initialize the scene
+     * Constructor to initialize the scene.<br>
+     * The scene is compiled when the first ray is traced, so it may still be built after the ray tracer
+     * was created - but later changes of the scene need a new ray tracer.
      *
      * @param scene the scene to be rendered
      */
@@ -26,86 +63,333 @@ public class SimpleRayTracer extends RayTracerBase {
         super(scene);
     }
 
+    /**
+     * Set the amount of lights sampled at each shaded point by their importance, for scenes with many lights.<br>
+     * The sampled lights are weighted by 1 / (samples * probability), so the image is unbiased but noisy -
+     * it converges with more samples or more rays per pixel. Lights without a position are always shaded,
+     * and all the lights are shaded if there are no more positioned lights than samples.
+     *
+     * @param lightSamples the amount of samples, 0 for shading all the lights (the default)
+     * @return the ray tracer
+     */
+    public SimpleRayTracer setLightSamples(int lightSamples) {
+        if (lightSamples < 0) throw new IllegalArgumentException("amount of light samples can't be negative");
+        this.lightSamples = lightSamples;
+        return this;
+    }
+
+    /**
+     * Getter for the amount of lights sampled at each shaded point
+     *
+     * @return the amount of samples, 0 for shading all the lights
+     */
+    int getLightSamples() {
+        return lightSamples;
+    }
+
+    /**
+     * Set the amount of shadow rays to each area light, for soft shadows.<br>
+     * The shadow rays are cast adaptively: first to the corner cells of a grid on the light, and only if they
+     * disagree (the point is in the penumbra) to all the cells, so the lit and the umbra areas cost 4 rays.
+     * The rays are jittered inside their cells, so the penumbra converges with more rays per pixel.
+     *
+     * @param shadowSamples the amount of shadow rays in the penumbra, rounded up to a square grid,
+     *                      0 or 1 for hard shadows from the centers of the lights (the default)
+     * @return the ray tracer
+     */
+    public SimpleRayTracer setShadowSamples(int shadowSamples) {
+        if (shadowSamples < 0) throw new IllegalArgumentException("amount of shadow samples can't be negative");
+        shadowGrid = shadowSamples <= 1 ? 0 : (int) Math.ceil(Math.sqrt(shadowSamples));
+        return this;
+    }
+
+    /**
+     * Getter for the amount of shadow rays to each area light in its penumbra
+     *
+     * @return the amount of shadow rays, 0 for hard shadows
+     */
+    int getShadowSamples() {
+        return shadowGrid * shadowGrid;
+    }
+
+    /**
+     * Set russian roulette for the reflected and refracted rays: a ray whose path is attenuated below
+     * the threshold (in its strongest color) is traced only with the probability of its attenuation divided
+     * by the threshold, and its light is divided by that probability - so the image is unbiased but noisy,
+     * and the deep trees of weak rays (e.g. glass on mirrors) are mostly cut off.
+     *
+     * @param threshold the attenuation threshold in [0, 1], 0 for tracing all the rays above
+     *                  the fixed minimal attenuation (the default)
+     * @return the ray tracer
+     */
+    public SimpleRayTracer setRussianRoulette(double threshold) {
+        if (threshold < 0 || threshold > 1)
+            throw new IllegalArgumentException("russian roulette threshold must be between 0 and 1");
+        this.rouletteThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Getter for the russian roulette threshold
+     *
+     * @return the attenuation threshold, 0 for no russian roulette
+     */
+    double getRussianRoulette() {
+        return rouletteThreshold;
+    }
+
+    /**
+     * Set a radiance cache for the points hit by reflected and refracted rays: their local effects are cached
+     * in a world-space grid, and interpolated for the points of the same surface within half a cell
+     * (whose normals are close), instead of being shaded again with their shadow rays.
+     * Materials with specular highlights are always shaded.<br>
+     * The cached colors around a point are interpolated only if they agree within 10% of their brightness,
+     * so a shadow edge or a spot light cone between them is shaded again. An edge which no cached color
+     * crosses yet (a single cached color on one side of it) is not detected, and may be blurred by up to half
+     * a cell - the spacing should be small relative to the sharpest lighting changes seen in reflections.<br>
+     * The cache is not used while lights or soft shadows are sampled ({@link #setLightSamples} or
+     * {@link #setShadowSamples} above 0): the noise of the first shaded point would be reused for all its
+     * neighbors instead of converging with more rays per pixel.
+     *
+     * @param spacing the size of the cells of the cache, 0 for no cache (the default)
+     * @return the ray tracer
+     */
+    public SimpleRayTracer setRadianceCache(double spacing) {
+        if (spacing < 0) throw new IllegalArgumentException("radiance cache spacing can't be negative");
+        radianceCache = spacing == 0 ? null : new RadianceCache(spacing);
+        return this;
+    }
+
+    /**
+     * Getter for the size of the cells of the radiance cache
+     *
+     * @return the size of the cells, 0 for no cache
+     */
+    double getRadianceCache() {
+        return radianceCache == null ? 0 : radianceCache.getSpacing();
+    }
+
     @Override
     public Color traceRay(Ray ray) {
+        RenderScene renderScene = getRenderScene();
         GeoPoint closestPoint = findClosestIntersection(ray);
-        return closestPoint == null ? scene.background : calcColor(closestPoint, ray);
+        return closestPoint == null ? renderScene.background : calcColor(closestPoint, ray);
     }
 
+    /**
+     * Get the compiled scene, compiling it on the first call (once, even if several threads trace rays).<br>
+     * The scene is never compiled again: changes of the scene after the first traced ray are not rendered
+     * by this ray tracer, a changed scene needs a new ray tracer.
+     *
+     * @return the compiled scene
+     */
+    private RenderScene getRenderScene() {
+        RenderScene result = compiled;
+        if (result == null) {
+            synchronized (this) {
+                result = compiled;
+                if (result == null) compiled = result = scene.compile();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculate the color of a point by its ray tree, evaluated iteratively: the color is the sum of the local
+     * effects of all the points of the tree, each scaled by the attenuation of the path which reached it,
+     * so the secondary rays wait on the thread's stack instead of a recursion
+     *
+     * @param geoPoint the point hit by the ray
+     * @param ray      the ray
+     * @return the color of the point
+     */
     private Color calcColor(GeoPoint geoPoint, Ray ray) {
-        return calcColor(geoPoint, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K).add(scene.ambientLight.getIntensity());
+        RayStack stack = rayStacks.get();
+        Color color = calcColor(stack, geoPoint, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K);
+        while (stack.size > 0) {
+            int top = --stack.size;
+            Ray secondary = stack.rays[top];
+            Double3 k = stack.k[top];
+            stack.rays[top] = null;
+            GeoPoint gp = findClosestIntersection(secondary);
+            color = gp == null ? color.add(compiled.background.scale(stack.parentK[top]))
+                    : color.add(calcColor(stack, gp, secondary, stack.levels[top], k));
+        }
+        return color.add(compiled.ambientIntensity);
     }
 
-    private Color calcColor(GeoPoint geoPoint, Ray ray, int level, Double3 k) {
-        Color color = calcLocalEffects(geoPoint, ray, k);
-        return level == 1 ? color : color.add(calcGlobalEffects(geoPoint, ray, level, k));
+    /**
+     * Calculate the local effects of a point of the ray tree, and push its secondary rays
+     *
+     * @param stack    the stack of the secondary rays
+     * @param geoPoint the point
+     * @param ray      the ray which hit the point
+     * @param level    the levels of the tree left below the point
+     * @param k        the attenuation of the path which reached the point
+     * @return the local effects, scaled by the attenuation
+     */
+    private Color calcColor(RayStack stack, GeoPoint geoPoint, Ray ray, int level, Double3 k) {
+        Color color = level == MAX_CALC_COLOR_LEVEL || radianceCache == null
+                ? calcLocalEffects(geoPoint, ray, k)
+                : calcCachedLocalEffects(geoPoint, ray, k);
+        if (k != INITIAL_K) color = color.scale(k);
+        if (level > 1) {
+            Material material = geoPoint.geometry.getMaterial();
+            // the reflected ray is pushed last, so it is traced first
+            if (material.hasTransparency()) pushGlobalEffect(stack, geoPoint, ray, false, material.getKt(), level, k);
+            if (material.hasReflection()) pushGlobalEffect(stack, geoPoint, ray, true, material.getKr(), level, k);
+        }
+        return color;
+    }
+
+    /**
+     * Push a secondary ray of a point, unless its path is too attenuated to count
+     *
+     * @param stack     the stack of the secondary rays
+     * @param gp        the point
+     * @param ray       the ray which hit the point
+     * @param reflected true for the reflected ray, false for the refracted ray
+     * @param kx        the reflection or the transparency factor of the material
+     * @param level     the levels of the tree left below the point
+     * @param k         the attenuation of the path which reached the point
+     */
+    private void pushGlobalEffect(RayStack stack, GeoPoint gp, Ray ray, boolean reflected, Double3 kx,
+                                  int level, Double3 k) {
+        Double3 kkx = kx.product(k);
+        if (kkx.lowerThan(MIN_CALC_COLOR_K)) return;
+        double attenuation = kkx.max();
+        if (attenuation < rouletteThreshold) {
+            // the surviving rays make up for the terminated ones, the background they hit included
+            double survival = attenuation / rouletteThreshold;
+            if (ThreadLocalRandom.current().nextDouble() >= survival) return;
+            kkx = kkx.scale(1d / survival);
+            k = k.scale(1d / survival);
+        }
+        int top = stack.size++;
+        stack.rays[top] = reflected ? constractReflectedRay(gp, ray) : constractRefractedRay(gp, ray);
+        stack.k[top] = kkx;
+        stack.parentK[top] = k;
+        stack.levels[top] = level - 1;
+    }
+
+    /**
+     * Calculate the local effects of a point hit by a secondary ray through the radiance cache.
+     * The colors of materials with specular highlights depend on the direction they are seen from,
+     * and sampled lights and soft shadows are noisy, so they are not cached.<br>
+     * The cached colors don't depend on the path which reached their points: they are shaded without its
+     * attenuation, which is applied by the caller to the cached and the shaded colors alike.
+     *
+     * @param geoPoint the point
+     * @param ray      the ray which hit the point
+     * @param k        the attenuation of the path which reached the point
+     * @return the local effects
+     */
+    private Color calcCachedLocalEffects(GeoPoint geoPoint, Ray ray, Double3 k) {
+        if (lightSamples > 0 || shadowGrid > 0 || geoPoint.geometry.getMaterial().hasSpecular())
+            return calcLocalEffects(geoPoint, ray, k);
+        Vector n = geoPoint.getNormal();
+        double nv = Util.alignZero(n.dotProduct(ray.getDirection()));
+        if (nv == 0d) return Color.BLACK;
+        // the two sides of a surface are lit differently
+        Vector facing = nv > 0 ? n.scale(-1) : n;
+        Color color = radianceCache.get(geoPoint.geometry, geoPoint.point, facing);
+        if (color == null) {
+            color = calcLocalEffects(geoPoint, ray, INITIAL_K);
+            radianceCache.put(geoPoint.geometry, geoPoint.point, facing, color);
+        }
+        return color;
     }
 
     private Color calcLocalEffects(GeoPoint geoPoint, Ray ray, Double3 k) {
-        Vector n = geoPoint.geometry.getNormal(geoPoint.point);
+        Vector n = geoPoint.getNormal();
         Vector direction = ray.getDirection();
 
         Color color = geoPoint.geometry.getEmission();
 
-        Point point = geoPoint.point;
-
         //store the values of the material
         Material material = geoPoint.geometry.getMaterial();
-        int nShininess = material.nShininess;
-        Double3 kD = material.kD;
-        Double3 kS = material.kS;
 
         double nv = Util.alignZero(n.dotProduct(direction));
         if (nv == 0d) return Color.BLACK;
+        // a material which reflects no light of the light sources needs no shadow rays
+        if (!material.hasDiffuse() && !material.hasSpecular()) return color;
 
         // Calculate the color of the point by adding the diffusive and specular components
-        for (var lightSource : scene.lights) {
-            Vector l = lightSource.getL(point).normalize();
-            double nl = n.dotProduct(l);
-
-            if (Util.alignZero(nl * nv) > 0d) { // if the light source is in front of the geometry
-                Double3 ktr = transparency(geoPoint, lightSource, l, n);
-                if(ktr.product(k).greaterThan(MIN_CALC_COLOR_K)){
-                    Color lightIntensity = lightSource.getIntensity(point).scale(ktr);
-                    color = color.add(calcDiffusive(kD, nl, lightIntensity))
-                            .add(calcSpecular(kS, l, n, nl, direction, nShininess, lightIntensity));
-                }
-            }
+        LightTree tree = compiled.lightTree;
+        if (lightSamples == 0 || tree.size() <= lightSamples) {
+            // the lights which don't reach the point are skipped, without a shadow ray
+            int[] lights = reachingLights.get();
+            int count = tree.collect(geoPoint.point, lights);
+            for (int i = 0; i < count; i++)
+                color = addLight(color, geoPoint, lights[i], 1d, n, direction, nv, material, k);
+            return color;
+        }
+
+        // the lights without a position are always shaded, and the others are sampled by their importance
+        for (int i = 0; i < tree.getGlobalCount(); i++)
+            color = addLight(color, geoPoint, tree.getGlobalLight(i), 1d, n, direction, nv, material, k);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < lightSamples; i++) {
+            LightTree.Sample sample = tree.sample(geoPoint.point, random.nextDouble());
+            if (sample != null && sample.probability() > 0)
+                color = addLight(color, geoPoint, sample.light(), 1d / (lightSamples * sample.probability()),
+                        n, direction, nv, material, k);
         }
         return color;
     }
 
-    private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Material material = gp.geometry.getMaterial();
-        return calcGlobalEffect(constractReflectedRay(gp, ray), material.kR, level, k)
-                .add(calcGlobalEffect(constractRefractedRay(gp, ray), material.kT, level, k));
+    /**
+     * Add the diffusive and specular components of a light to the color of a point
+     *
+     * @param color     the color of the point so far
+     * @param geoPoint  the point
+     * @param light     the index of the light in the scene
+     * @param weight    the factor of the light, 1 unless it was sampled
+     * @param n         the normal at the point
+     * @param direction the direction of the ray which hit the point
+     * @param nv        the dot product of the normal and the direction
+     * @param material  the material at the point
+     * @param k         the attenuation of the ray so far
+     * @return the color with the light added
+     */
+    private Color addLight(Color color, GeoPoint geoPoint, int light, double weight,
+                           Vector n, Vector direction, double nv, Material material, Double3 k) {
+        LightSource lightSource = compiled.lights.get(light);
+        Point point = geoPoint.point;
+        Vector l = lightSource.getL(point).normalize();
+        double nl = n.dotProduct(l);
+
+        if (Util.alignZero(nl * nv) <= 0d) return color; // the light source is behind the geometry
+        Double3 ktr = transparency(geoPoint, lightSource, light, l, n);
+        if (!ktr.product(k).greaterThan(MIN_CALC_COLOR_K)) return color;
+
+        Color lightIntensity = lightSource.getIntensity(point).scale(ktr);
+        if (weight != 1d) lightIntensity = lightIntensity.scale(weight);
+        if (material.hasDiffuse()) color = color.add(calcDiffusive(material.getKd(), nl, lightIntensity));
+        return material.hasSpecular()
+                ? color.add(calcSpecular(material.getKs(), l, n, nl, direction, material.getShininess(),
+                        lightIntensity))
+                : color;
     }
 
     private Ray constractRefractedRay(GeoPoint gp, Ray ray) {
-        return new Ray(gp.point, ray.getDirection(), gp.geometry.getNormal(gp.point));
+        return new Ray(gp.point, ray.getDirection(), gp.getNormal());
     }
 
     private Ray constractReflectedRay(GeoPoint gp, Ray ray) {
         Vector v = ray.getDirection();
-        Vector n = gp.geometry.getNormal(gp.point);
+        Vector n = gp.getNormal();
         double vn = v.dotProduct(n);
         return new Ray(gp.point, v.subtract(n.scale(2 * vn)), n);
     }
 
-    private Color calcGlobalEffect(Ray ray, Double3 kx, int level, Double3 k) {
-        Double3 kkx = kx.product(k);
-        if (kkx.lowerThan(MIN_CALC_COLOR_K)) return Color.BLACK;
-        GeoPoint gp = findClosestIntersection(ray);
-        return gp == null ? scene.background : calcColor(gp, ray, level - 1, kkx).scale(kx);
-    }
-
     private Color calcSpecular(Double3 ks, Vector l, Vector n, double nl, Vector v, int nShininess, Color lightIntensity) {
         //calculate the reflection vector
         Vector r = l.subtract(n.scale(2d * nl));
         double vr = Util.alignZero(v.scale(-1d).dotProduct(r));
         if (vr <= 0d) return Color.BLACK;
         //calculate the specular component
-        return lightIntensity.scale(ks.scale(Math.pow(vr, nShininess)));
+        return lightIntensity.scale(ks.scale(Util.pow(vr, nShininess)));
     }
 
     private Color calcDiffusive(Double3 kd, double nl, Color lightIntensity) {
@@ -114,23 +398,154 @@ public class SimpleRayTracer extends RayTracerBase {
     }
 
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
-        if (intersections == null) return null;
-        return ray.findClosestGeoPoint(intersections);
+        return compiled.geometries.findClosestGeoIntersection(ray);
+    }
+
+    private Double3 transparency(GeoPoint geoPoint, LightSource ls, int light, Vector l, Vector n){
+        if (shadowGrid > 0 && ls instanceof AreaLight area) return softTransparency(geoPoint.point, area, light, l, n);
+        return transparency(new Ray(geoPoint.point, l.scale(-1), n), ls.getDistance(geoPoint.point), light);
+    }
+
+    /**
+     * Calculate the visibility of an area light from a point, by the average transparency of shadow rays
+     * to a jittered grid on the light - the corner cells are tested first, and the other cells only
+     * if the corners disagree
+     *
+     * @param point the shaded point
+     * @param area  the light
+     * @param light the index of the light in the scene
+     * @param l     the direction from the center of the light to the point
+     * @param n     the normal at the point
+     * @return the average transparency
+     */
+    private Double3 softTransparency(Point point, AreaLight area, int light, Vector l, Vector n) {
+        // the side of the surface which faces the light, the samples on its other side are not seen
+        double side = -l.dotProduct(n);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int last = shadowGrid - 1;
+        Double3 first = null, sum = Double3.ZERO;
+        boolean agree = true;
+        for (int corner = 0; corner < 4; corner++) {
+            int i = (corner & 1) * last, j = (corner >> 1) * last;
+            Double3 ktr = cellTransparency(point, area, light, side, n, i, j, random);
+            if (first == null) first = ktr;
+            else agree &= ktr.equals(first);
+            sum = sum.add(ktr);
+        }
+        if (agree) return first;
+
+        for (int i = 0; i < shadowGrid; i++)
+            for (int j = 0; j < shadowGrid; j++)
+                if ((i != 0 && i != last) || (j != 0 && j != last))
+                    sum = sum.add(cellTransparency(point, area, light, side, n, i, j, random));
+        return sum.scale(1d / (shadowGrid * shadowGrid));
+    }
+
+    /**
+     * Calculate the transparency of a shadow ray to a random point in a cell of the grid on an area light
+     *
+     * @param point  the shaded point
+     * @param area   the light
+     * @param light  the index of the light in the scene
+     * @param side   the dot product of the normal and the direction to the center of the light
+     * @param n      the normal at the point
+     * @param i      the first coordinate of the cell
+     * @param j      the second coordinate of the cell
+     * @param random the random number generator of the thread
+     * @return the transparency
+     */
+    private Double3 cellTransparency(Point point, AreaLight area, int light, double side, Vector n, int i, int j,
+                                     ThreadLocalRandom random) {
+        Point target = area.getSample((i + random.nextDouble()) / shadowGrid, (j + random.nextDouble()) / shadowGrid);
+        Vector toLight = target.subtract(point);
+        double distance = toLight.length();
+        // the part of the light behind the surface is not seen from the point
+        if (Util.alignZero(toLight.dotProduct(n) * side) <= 0d) return Double3.ZERO;
+        return transparency(new Ray(point, toLight.scale(1d / distance), n), distance, light);
     }
 
-    private Double3 transparency(GeoPoint geoPoint, LightSource ls, Vector l, Vector n){
-        Ray lightRay = new Ray(geoPoint.point, l.scale(-1), n);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay, ls.getDistance(geoPoint.point));
-        if (intersections == null) return Double3.ONE;
+    /**
+     * Calculate the transparency of a shadow ray by the occluders between the point and the light
+     *
+     * @param lightRay the shadow ray from the point to the light
+     * @param distance the distance of the light
+     * @param light    the index of the light in the scene
+     * @return the transparency, the product of the transparency factors of the occluders
+     */
+    private Double3 transparency(Ray lightRay, double distance, int light) {
+        // an opaque occluder blocks the light by itself, whatever else is on the shadow ray
+        Geometry[] cache = occluders.get();
+        Geometry occluder = cache[light];
+        if (occluder != null && occluder.findAnyHit(lightRay, HitRecord.get(lightRay, distance), ANY_HIT)) {
+            occluderHits.increment();
+            return Double3.ZERO;
+        }
+        occluderMisses.increment();
+
+        // the occluders are multiplied in as they are found, and the first one which makes the light
+        // too weak (e.g. an opaque geometry) ends the search - they are passed in the thread's hit record,
+        // so no intersection points are created
+        Occlusion occlusion = new Occlusion();
+        HitRecord hit = HitRecord.get(lightRay, distance);
+        if (compiled.geometries.findAnyHit(lightRay, hit, occlusion)) {
+            if (hit.getMaterial().getKt().lowerThan(MIN_CALC_COLOR_K)) cache[light] = hit.getPlacedGeometry();
+            return Double3.ZERO;
+        }
+        return occlusion.ktr;
+    }
 
-        Double3 ktr = Double3.ONE;
-        for (GeoPoint gp : intersections) {
-            ktr = ktr.product(gp.geometry.getMaterial().kT);
+    /**
+     * Creates a report of the shadow rays which were blocked by the last occluder of their light
+     * (without traversing the scene), and of those which traversed the scene - and of the lookups
+     * answered by the radiance cache, if there is one.
+     *
+     * @return the report
+     */
+    public String getStatistics() {
+        long hits = occluderHits.sum();
+        long rays = hits + occluderMisses.sum();
+        String statistics = String.format("shadow rays: %d%noccluder cache hits: %d (%.2f%%)",
+                rays, hits, rays == 0 ? 0d : 100d * hits / rays);
+        return radianceCache == null ? statistics : statistics + System.lineSeparator() + radianceCache.getStatistics();
+    }
+
+    /**
+     * Resets the statistics of the shadow rays.
+     */
+    public void resetStatistics() {
+        occluderHits.reset();
+        occluderMisses.reset();
+        if (radianceCache != null) radianceCache.resetStatistics();
+    }
+
+    /**
+     * The secondary rays of a ray tree which are still to be traced, with the attenuation of their paths.<br>
+     * The rays are traced depth first, so each level of the tree holds at most one waiting ray besides
+     * the traced one, and the stack is bounded by the levels of the tree.
+     */
+    private static class RayStack {
+        private final Ray[] rays = new Ray[MAX_CALC_COLOR_LEVEL + 1];
+        // the attenuation of the path of each ray, and of the path which reached the point it was cast from
+        private final Double3[] k = new Double3[MAX_CALC_COLOR_LEVEL + 1];
+        private final Double3[] parentK = new Double3[MAX_CALC_COLOR_LEVEL + 1];
+        private final int[] levels = new int[MAX_CALC_COLOR_LEVEL + 1];
+        private int size = 0;
+    }
+
+    /**
+     * Accumulates the transparency of the occluders of a shadow ray, accepting the occluder
+     * which makes the light ray too weak to count
+     */
+    private static class Occlusion implements Predicate<HitRecord> {
+        private Double3 ktr = Double3.ONE;
 
+        @Override
+        public boolean test(HitRecord hit) {
+            Material material = hit.getMaterial();
+            if (material.isOpaque()) return true;
+            ktr = ktr.product(material.getKt());
             // If the intensity of the light ray is too small, the object is opaque
-            if (ktr.lowerThan(MIN_CALC_COLOR_K)) return Double3.ZERO;
+            return ktr.lowerThan(MIN_CALC_COLOR_K);
         }
-        return ktr;
     }
-}
\ No newline at end of file
+}
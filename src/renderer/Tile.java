@@ -0,0 +1,13 @@
+package renderer;
+
+/**
+ * A rectangular block of pixels which is rendered as one unit of work by a render worker
+ *
+ * @param id     the index of the tile in the image
+ * @param x      the x index of the upper left pixel of the tile
+ * @param y      the y index of the upper left pixel of the tile
+ * @param width  the amount of pixels in each row of the tile
+ * @param height the amount of rows in the tile
+ */
+record Tile(int id, int x, int y, int width, int height) {
+}
@@ -11,9 +11,12 @@ import geometries.*;
 
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * JsonScene class represents a scene in the 3D space and provides methods to import a scene from a JSON file.
@@ -29,8 +32,22 @@ public class JsonScene {
      * @throws ParseException if there is an error parsing the JSON
      */
     public static Scene importScene(String path) throws IOException, ParseException {
+        try (Reader reader = new FileReader(path)) {
+            return importScene(reader);
+        }
+    }
+
+    /**
+     * Imports a scene from a reader of JSON text.
+     *
+     * @param reader the reader of the JSON text
+     * @return the scene imported from the JSON text
+     * @throws IOException    if there is an error reading the text
+     * @throws ParseException if there is an error parsing the JSON
+     */
+    public static Scene importScene(Reader reader) throws IOException, ParseException {
         JSONParser jsonParser = new JSONParser();
-        JSONObject jsonObject = (JSONObject) jsonParser.parse(new FileReader(path));
+        JSONObject jsonObject = (JSONObject) jsonParser.parse(reader);
         JSONObject sceneObj = (JSONObject) jsonObject.get("scene");
 
         String name = (String) sceneObj.get("name");
@@ -46,17 +63,23 @@ public class JsonScene {
         }
         if(sceneObj.containsKey("geometries")){
             JSONArray materials = (JSONArray) sceneObj.get("materials");
-            scene.setGeometries(parseGeometries((JSONArray) sceneObj.get("geometries"), materials));
+            Map<String, Geometries> meshes = new HashMap<>();
+            if (sceneObj.containsKey("meshes"))
+                meshes = parseMeshes((JSONObject) sceneObj.get("meshes"), materials);
+            scene.setGeometries(parseGeometries((JSONArray) sceneObj.get("geometries"), materials, meshes));
         }
 
         if(sceneObj.containsKey("lights"))
             scene.setLights(parseLights((JSONArray) sceneObj.get("lights")));
 
+        if(sceneObj.containsKey("acceleration"))
+            scene.setAcceleration(Acceleration.valueOf(((String) sceneObj.get("acceleration")).toUpperCase()));
+
         return scene;
     }
 
     private static List<LightSource> parseLights(JSONArray lights) {
-        List<LightSource> lightSources = new LinkedList<>();
+        List<LightSource> lightSources = new ArrayList<>();
         for (Object obj : lights) {
             JSONObject lightObj = (JSONObject) obj;
             if (lightObj.containsKey("point")) {
@@ -65,6 +88,8 @@ public class JsonScene {
                 lightSources.add(parseDirectionalLight((JSONObject) lightObj.get("directional")));
             } else if (lightObj.containsKey("spot")) {
                 lightSources.add(parseSpotLight((JSONObject) lightObj.get("spot")));
+            } else if (lightObj.containsKey("area")) {
+                lightSources.add(parseAreaLight((JSONObject) lightObj.get("area")));
             } else {
                 throw new IllegalArgumentException("Unknown light type");
             }
@@ -92,6 +117,26 @@ public class JsonScene {
         return spotLight;
     }
 
+    private static LightSource parseAreaLight(JSONObject lightObj) {
+        Color color = parseColor((String) lightObj.get("color"));
+        Point position = parsePoint((String) lightObj.get("position"));
+        AreaLight areaLight = lightObj.containsKey("radius")
+                ? new AreaLight(color, position, parseVector((String) lightObj.get("normal")),
+                ((Number) lightObj.get("radius")).doubleValue())
+                : new AreaLight(color, position, parseVector((String) lightObj.get("width")),
+                parseVector((String) lightObj.get("height")));
+        if (lightObj.containsKey("kc")) {
+            areaLight.setKc(((Number) lightObj.get("kc")).doubleValue());
+        }
+        if (lightObj.containsKey("kl")) {
+            areaLight.setKl(((Number) lightObj.get("kl")).doubleValue());
+        }
+        if (lightObj.containsKey("kq")) {
+            areaLight.setKq(((Number) lightObj.get("kq")).doubleValue());
+        }
+        return areaLight;
+    }
+
     private static LightSource parseDirectionalLight(JSONObject lightObj) {
         Color color = parseColor((String) lightObj.get("color"));
         Vector direction = parseVector((String) lightObj.get("direction"));
@@ -115,10 +160,27 @@ public class JsonScene {
         return pointLight;
     }
 
-    private static Geometries parseGeometries(JSONArray geometriesArray, JSONArray materials) {
+    private static Map<String, Geometries> parseMeshes(JSONObject meshesObj, JSONArray materials) {
+        // each mesh is built once with its own BVH and shared by all the instances which refer to its name
+        Map<String, Geometries> meshes = new HashMap<>();
+        for (Object key : meshesObj.keySet()) {
+            Geometries mesh = parseGeometries((JSONArray) meshesObj.get(key), materials, meshes);
+            mesh.makeBVH();
+            meshes.put((String) key, mesh);
+        }
+        return meshes;
+    }
+
+    private static Geometries parseGeometries(JSONArray geometriesArray, JSONArray materials,
+                                              Map<String, Geometries> meshes) {
         Geometries geometries = new Geometries();
         for (Object obj : geometriesArray) {
             JSONObject geometryObj = (JSONObject) obj;
+            if (geometryObj.containsKey("instance")) {
+                geometries.add(parseInstance(geometryObj, materials, meshes));
+                continue;
+            }
+
             Geometry geometry;
             if (geometryObj.containsKey("sphere")) {
                 geometry = parseSphere((JSONObject) geometryObj.get("sphere"));
@@ -137,7 +199,7 @@ public class JsonScene {
             }
 
             if (geometryObj.containsKey("material"))
-                parseMaterial(geometryObj, geometry, materials);
+                geometry.setMaterial(parseMaterial(geometryObj, materials));
 
             if(geometryObj.containsKey("emission"))
                 geometry.setEmission(parseColor((String) geometryObj.get("emission")));
@@ -147,7 +209,42 @@ public class JsonScene {
         return geometries;
     }
 
-    private static void parseMaterial(JSONObject geometryObj, Geometry geometry, JSONArray materials) {
+    private static Instance parseInstance(JSONObject geometryObj, JSONArray materials, Map<String, Geometries> meshes) {
+        JSONObject instanceObj = (JSONObject) geometryObj.get("instance");
+        Geometries mesh = meshes.get((String) instanceObj.get("mesh"));
+        if (mesh == null)
+            throw new IllegalArgumentException("Unknown mesh " + instanceObj.get("mesh"));
+
+        // the transformations are applied in the order scale, rotate (around X, Y, then Z), translate
+        Transform transform = Transform.IDENTITY;
+        if (instanceObj.containsKey("scale")) {
+            Object scale = instanceObj.get("scale");
+            if (scale instanceof Number) {
+                double factor = ((Number) scale).doubleValue();
+                transform = transform.then(Transform.scaling(factor, factor, factor));
+            } else {
+                double[] factors = parseCoordinates((String) scale);
+                transform = transform.then(Transform.scaling(factors[0], factors[1], factors[2]));
+            }
+        }
+        if (instanceObj.containsKey("rotate")) {
+            double[] angles = parseCoordinates((String) instanceObj.get("rotate"));
+            transform = transform.then(Transform.rotation(new Vector(1, 0, 0), angles[0]))
+                    .then(Transform.rotation(new Vector(0, 1, 0), angles[1]))
+                    .then(Transform.rotation(new Vector(0, 0, 1), angles[2]));
+        }
+        if (instanceObj.containsKey("translate"))
+            transform = transform.then(Transform.translation(parseVector((String) instanceObj.get("translate"))));
+
+        Instance instance = new Instance(mesh, transform);
+        if (geometryObj.containsKey("material"))
+            instance.setMaterial(parseMaterial(geometryObj, materials));
+        if (geometryObj.containsKey("emission"))
+            instance.setEmission(parseColor((String) geometryObj.get("emission")));
+        return instance;
+    }
+
+    private static Material parseMaterial(JSONObject geometryObj, JSONArray materials) {
 
         Object objCheck = geometryObj.get("material");
         JSONObject materialObj = null;
@@ -185,7 +282,7 @@ public class JsonScene {
         if (materialObj.containsKey("kt")) {
             material.setKt(((Number) materialObj.get("kt")).doubleValue());
         }
-        geometry.setMaterial(material);
+        return material;
     }
 
     private static Geometry parseTube(JSONObject tube) {
@@ -0,0 +1,63 @@
+package scene;
+
+import geometries.Geometries;
+import lighting.LightSource;
+import lighting.LightTree;
+import primitives.Color;
+
+import java.util.List;
+
+/**
+ * RenderScene is the render-ready form of a {@link Scene}, created by {@link Scene#compile()}.<br>
+ * Its geometries are flattened into a new acceleration structure and its lights into an immutable list
+ * and a {@link LightTree}, with the ambient intensity, so its structure can be shared by all the rendering threads
+ * while geometries and lights are added to or removed from the scene it came from.<br>
+ * The geometries, the lights and their materials are the objects of the scene, they are not copied:
+ * they must not be changed while the scene is rendered, and the light tree keeps the positions, powers
+ * and attenuations of the lights when the scene was compiled - a scene whose objects changed must be compiled again.
+ */
+public final class RenderScene {
+    /**
+     * name of the scene
+     */
+    public final String name;
+    /**
+     * background color of the scene
+     */
+    public final Color background;
+    /**
+     * intensity of the ambient light of the scene
+     */
+    public final Color ambientIntensity;
+    /**
+     * lights in the scene
+     */
+    public final List<LightSource> lights;
+    /**
+     * the lights in the scene in a tree for sampling them by their importance
+     */
+    public final LightTree lightTree;
+    /**
+     * geometries in the scene, in one acceleration structure
+     */
+    public final Geometries geometries;
+
+    /**
+     * Constructor for RenderScene
+     *
+     * @param name             the name of the scene
+     * @param background       the background color of the scene
+     * @param ambientIntensity the intensity of the ambient light of the scene
+     * @param lights           the lights in the scene
+     * @param geometries       the geometries in the scene, in one acceleration structure
+     */
+    RenderScene(String name, Color background, Color ambientIntensity, List<LightSource> lights,
+                Geometries geometries) {
+        this.name = name;
+        this.background = background;
+        this.ambientIntensity = ambientIntensity;
+        this.lights = lights;
+        this.lightTree = new LightTree(lights);
+        this.geometries = geometries;
+    }
+}
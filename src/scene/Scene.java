@@ -1,12 +1,14 @@
 package scene;
 
+import geometries.Acceleration;
 import geometries.Geometries;
 import lighting.LightSource;
 import primitives.Color;
 import lighting.AmbientLight;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.MissingResourceException;
 
 /**
  * Scene class represents a scene in the 3D space
@@ -17,7 +19,7 @@ public class Scene {
     /**
      * lights in the scene
      */
-    public List<LightSource> lights = new LinkedList<>();
+    public List<LightSource> lights = new ArrayList<>();
     /**
      * name of the scene
      */
@@ -34,6 +36,10 @@ public class Scene {
      * geometries in the scene
      */
     public Geometries geometries = new Geometries();
+    /**
+     * the acceleration structure the geometries are compiled into
+     */
+    private Acceleration acceleration = Acceleration.BVH;
 
     /**
      * Constructor for Scene
@@ -73,6 +79,24 @@ public class Scene {
         return this;
     }
 
+    /**
+     * Scene setter
+     * @param acceleration the acceleration structure the geometries are compiled into
+     * @return the scene
+     */
+    public Scene setAcceleration(Acceleration acceleration) {
+        this.acceleration = acceleration;
+        return this;
+    }
+
+    /**
+     * Scene getter
+     * @return the acceleration structure the geometries are compiled into
+     */
+    public Acceleration getAcceleration() {
+        return acceleration;
+    }
+
     /**
      * Scene setter
      * @param lights the lights in the scene
@@ -83,4 +107,30 @@ public class Scene {
         return this;
     }
 
+    /**
+     * Compile the scene into its render-ready form. The scene is validated, its geometries
+     * (with the geometries of all the nested collections) are flattened into a new acceleration structure
+     * and its list of lights is copied, so geometries and lights later added to or removed from the scene
+     * don't affect the compiled one. The geometries, lights and materials are shared with the compiled scene,
+     * so changing them requires compiling the scene again.
+     *
+     * @return the compiled scene
+     * @throws MissingResourceException if the background, the ambient light, the lights, the geometries
+     *                                  or the acceleration structure are not set
+     * @throws IllegalArgumentException if one of the lights is null
+     */
+    public RenderScene compile() {
+        final String description = "values not set: ";
+        final String className = "Scene";
+        if (background == null) throw new MissingResourceException(description, className, "background");
+        if (ambientLight == null) throw new MissingResourceException(description, className, "ambientLight");
+        if (lights == null) throw new MissingResourceException(description, className, "lights");
+        if (geometries == null) throw new MissingResourceException(description, className, "geometries");
+        if (acceleration == null) throw new MissingResourceException(description, className, "acceleration");
+        for (LightSource light : lights)
+            if (light == null) throw new IllegalArgumentException("A scene can't have a null light");
+
+        return new RenderScene(name, background, ambientLight.getIntensity(), List.copyOf(lights),
+                geometries.compile(acceleration));
+    }
 }
@@ -0,0 +1,159 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests of all the acceleration structures of {@link Acceleration}, each compiled by
+ * {@link Geometries#compile(Acceleration)} and compared with a BVH of the same geometries
+ */
+class AccelerationTests {
+    private final Random random = new Random(42);
+
+    /**
+     * A unit sphere which moves in place, as the geometries of an animated scene
+     */
+    static class MovingSphere extends Intersectable {
+        private Sphere sphere;
+
+        MovingSphere(Point center) {
+            moveTo(center);
+        }
+
+        void moveTo(Point center) {
+            sphere = new Sphere(1, center);
+            box = sphere.getBoundingBox();
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            return sphere.findGeoIntersections(ray, maxDistance);
+        }
+    }
+
+    /**
+     * Compare the closest and any hits of rays in an acceleration structure and in a BVH of the same geometries
+     *
+     * @param acceleration the acceleration structure
+     * @param geometries   the geometries
+     * @param rays         the rays
+     */
+    private static void assertSameHits(Acceleration acceleration, List<Intersectable> geometries, List<Ray> rays) {
+        Geometries structure = new Geometries(geometries).compile(acceleration);
+        Geometries bvh = new Geometries(geometries).compile(Acceleration.BVH);
+        for (Ray ray : rays) {
+            GeoPoint expected = bvh.findClosestGeoIntersection(ray);
+            GeoPoint actual = structure.findClosestGeoIntersection(ray);
+            if (expected == null) assertNull(actual, acceleration + " found an intersection of " + ray);
+            else {
+                assertNotNull(actual, acceleration + " missed an intersection of " + ray);
+                assertEquals(expected.point.distance(ray.getPoint(0)), actual.point.distance(ray.getPoint(0)), 1e-9,
+                        acceleration + " found another closest intersection of " + ray);
+            }
+            assertEquals(bvh.findAnyGeoIntersection(ray, 10, gp -> true) != null,
+                    structure.findAnyGeoIntersection(ray, 10, gp -> true) != null,
+                    acceleration + " found another hit of " + ray);
+        }
+    }
+
+    private Point randomPoint(double size) {
+        return new Point(random.nextDouble() * size, random.nextDouble() * size, random.nextDouble() * size);
+    }
+
+    private Vector randomVector() {
+        return new Vector(random.nextGaussian(), random.nextGaussian(), random.nextGaussian());
+    }
+
+    private List<Ray> randomRays(int amount, double size) {
+        List<Ray> rays = new ArrayList<>();
+        for (int i = 0; i < amount; i++) rays.add(new Ray(randomPoint(size), randomVector()));
+        return rays;
+    }
+
+    /**
+     * Create a flat square of triangles in the xy plane, between 0 and 10 in x and y
+     *
+     * @return the triangles
+     */
+    static List<Intersectable> flatTriangles() {
+        List<Intersectable> flat = new ArrayList<>();
+        for (int x = 0; x < 10; x++)
+            for (int y = 0; y < 10; y++)
+                flat.add(new Triangle(new Point(x, y, 0), new Point(x + 1, y, 0), new Point(x, y + 1, 0)));
+        return flat;
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestHit(primitives.Ray, geometries.HitRecord)}
+     * with each acceleration structure.
+     */
+    @Test
+    void testFindClosestHit() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: spheres of different sizes and triangles, rays from inside and outside the structure
+        List<Intersectable> geometries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            geometries.add(new Sphere(0.1 + random.nextDouble() * 2, randomPoint(20)));
+            Point p = randomPoint(20);
+            geometries.add(new Triangle(p, p.add(randomVector()), p.add(randomVector())));
+        }
+        List<Ray> rays = randomRays(500, 30);
+        for (Acceleration acceleration : Acceleration.values())
+            assertSameHits(acceleration, geometries, rays);
+
+        // =============== Boundary Values Tests ==================
+        // TC02: a flat grid of triangles, and rays along the axes and in the plane of the triangles
+        List<Intersectable> flat = flatTriangles();
+        List<Ray> flatRays = randomRays(200, 10);
+        flatRays.add(new Ray(new Point(0.2, 0.2, 5), new Vector(0, 0, -1)));
+        flatRays.add(new Ray(new Point(-1, 0.2, 0), new Vector(1, 0, 0)));
+        flatRays.add(new Ray(new Point(5.2, 5.2, -3), new Vector(0, 0, 1)));
+        flatRays.add(new Ray(new Point(5, 5, 0), new Vector(1, 1, 0)));
+        for (Acceleration acceleration : Acceleration.values())
+            assertSameHits(acceleration, flat, flatRays);
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#replace(Intersectable, Intersectable)}
+     * and {@link geometries.Geometries#refit()} of a collection with each acceleration structure.
+     */
+    @Test
+    void testReplaceAndRefit() {
+        for (Acceleration acceleration : Acceleration.values()) {
+            Sphere replaced = new Sphere(1, new Point(10, 0, 0));
+            MovingSphere moving = new MovingSphere(new Point(20, 0, 0));
+            Geometries geometries = new Geometries(new Sphere(1, Point.ZERO), replaced, moving,
+                    new Sphere(1, new Point(30, 0, 0)), new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)))
+                    .compile(acceleration);
+            Ray down = new Ray(new Point(100, 0, 5), new Vector(0, 0, -1));
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: a geometry in the structure is replaced by one out of the structure's bounds
+            assertTrue(geometries.replace(replaced, new Sphere(1, new Point(100, 0, 0))),
+                    "Geometry in a " + acceleration + " not replaced");
+            assertEquals(new Point(100, 0, 1), geometries.findClosestGeoIntersection(down).point,
+                    "New location of the replaced geometry is not intersected in a " + acceleration);
+            assertEquals(1, geometries.findIntersections(new Ray(new Point(10, 0, 5), new Vector(0, 0, -1))).size(),
+                    "Old location of the replaced geometry is intersected in a " + acceleration);
+
+            // TC02: a geometry of the structure moved, the structure is refitted or rebuilt
+            moving.moveTo(new Point(-50, 0, 0));
+            geometries.refit();
+            assertEquals(new Point(-50, 0, 1),
+                    geometries.findClosestGeoIntersection(new Ray(new Point(-50, 0, 5), new Vector(0, 0, -1))).point,
+                    "Moved geometry is not intersected after the refit of a " + acceleration);
+
+            // =============== Boundary Values Tests ==================
+            // TC03: a geometry which is not in the structure
+            assertFalse(geometries.replace(replaced, replaced),
+                    "Replaced a geometry which is not in the " + acceleration);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.BoundingBox class
+ */
+class BoundingBoxTests {
+    private final BoundingBox box = new BoundingBox(new Point(1, 1, 1), new Point(2, 2, 2));
+
+    /**
+     * Test method for {@link geometries.BoundingBox#hasIntersection(primitives.Ray, double, double)}.
+     */
+    @Test
+    void testHasIntersection() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the box
+        Ray ray = new Ray(Point.ZERO, new Vector(1, 1, 1));
+        assertTrue(box.hasIntersection(ray), "Ray crosses the box");
+
+        // TC02: ray goes backwards through the box
+        assertTrue(box.hasIntersection(new Ray(new Point(3, 3, 3), new Vector(-1, -1, -1))),
+                "Ray crosses the box backwards");
+
+        // TC03: ray misses the box
+        assertFalse(box.hasIntersection(new Ray(Point.ZERO, new Vector(1, -1, 1))), "Ray misses the box");
+
+        // TC04: box is behind the ray
+        assertFalse(box.hasIntersection(new Ray(new Point(3, 3, 3), new Vector(1, 1, 1))), "Box is behind the ray");
+
+        // TC05: box is beyond the end of the interval
+        assertFalse(box.hasIntersection(ray, 0, 1), "Box is beyond the interval");
+        assertTrue(box.hasIntersection(ray, 0, 2), "Interval ends inside the box");
+
+        // =============== Boundary Values Tests ==================
+        // TC06: ray starts inside the box
+        assertTrue(box.hasIntersection(new Ray(new Point(1.5, 1.5, 1.5), new Vector(0, 0, 1))),
+                "Ray starts inside the box");
+
+        // TC07: ray parallel to the faces, inside and outside their slabs
+        assertTrue(box.hasIntersection(new Ray(new Point(1.5, 1.5, 0), new Vector(0, 0, 1))),
+                "Ray parallel to the faces crosses the box");
+        assertFalse(box.hasIntersection(new Ray(new Point(3, 1.5, 0), new Vector(0, 0, 1))),
+                "Ray parallel to the faces misses the box");
+
+        // TC08: ray along a face of the box
+        assertTrue(box.hasIntersection(new Ray(new Point(1, 1.5, 0), new Vector(0, 0, 1))), "Ray along a face");
+    }
+
+    /**
+     * Test method for {@link geometries.BoundingBox#entry(primitives.Ray, double)}
+     * and {@link geometries.BoundingBox#exit(primitives.Ray, double)}.
+     */
+    @Test
+    void testEntryExit() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the box
+        Ray ray = new Ray(new Point(0, 1.5, 1.5), new Vector(1, 0, 0));
+        assertEquals(1, box.entry(ray, 0), 1e-9, "Bad entry distance");
+        assertEquals(2, box.exit(ray, Double.POSITIVE_INFINITY), 1e-9, "Bad exit distance");
+
+        // TC02: ray starts inside the box, the interval limits the distances
+        Ray inside = new Ray(new Point(1.5, 1.5, 1.5), new Vector(-1, 0, 0));
+        assertEquals(0, box.entry(inside, 0), 1e-9, "Entry before the head of the ray");
+        assertEquals(0.2, box.exit(inside, 0.2), 1e-9, "Exit beyond the end of the interval");
+
+        // TC03: ray misses the box
+        Ray miss = new Ray(new Point(0, 3, 1.5), new Vector(1, 0, 0));
+        assertTrue(box.entry(miss, 0) > box.exit(miss, Double.POSITIVE_INFINITY), "Ray misses the box");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: ray parallel to a slab, starting on its face
+        Ray face = new Ray(new Point(0, 1, 1.5), new Vector(1, 0, 0));
+        assertEquals(1, box.entry(face, 0), 1e-9, "Bad entry distance along a face");
+        assertEquals(2, box.exit(face, Double.POSITIVE_INFINITY), 1e-9, "Bad exit distance along a face");
+    }
+}
@@ -0,0 +1,60 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.ClippedGeometry class
+ */
+class ClippedGeometryTests {
+    /**
+     * A tube along the z axis, clipped to the part of it between z=0 and z=10
+     */
+    private final ClippedGeometry tube = new ClippedGeometry(new Tube(new Ray(Point.ZERO, new Vector(0, 0, 1)), 1),
+            new BoundingBox(new Point(-1, -1, 0), new Point(1, 1, 10)));
+
+    /**
+     * Test method for {@link geometries.ClippedGeometry#ClippedGeometry(Intersectable, BoundingBox)}.
+     */
+    @Test
+    void testConstructor() {
+        // =============== Boundary Values Tests ==================
+        // TC01: a geometry can't be clipped without bounds
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClippedGeometry(new Plane(Point.ZERO, new Vector(0, 0, 1)), null),
+                "Constructed a clipped geometry without bounds");
+    }
+
+    /**
+     * Test method for {@link geometries.ClippedGeometry#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the tube inside the bounds
+        assertEquals(List.of(new Point(-1, 0, 5), new Point(1, 0, 5)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 5), new Vector(1, 0, 0))),
+                "Wrong intersections inside the bounds");
+
+        // TC02: ray crosses the tube outside the bounds
+        assertNull(tube.findIntersections(new Ray(new Point(-2, 0, 20), new Vector(1, 0, 0))),
+                "Intersections outside the bounds");
+
+        // TC03: ray crosses the tube once inside the bounds and once outside them
+        assertEquals(List.of(new Point(-1, 0, 9)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 8), new Vector(1, 0, 1))),
+                "Wrong intersections across the bounds");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: ray crosses the tube on the face of the bounds
+        assertEquals(List.of(new Point(-1, 0, 10), new Point(1, 0, 10)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 10), new Vector(1, 0, 0))),
+                "Wrong intersections on the face of the bounds");
+    }
+}
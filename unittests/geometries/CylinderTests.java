@@ -134,6 +134,38 @@ class CylinderTests {
         // TC02: The distance between the ray intersection point and the ray's start point is less than the distance(2 points)
        assertEquals(2, cylinder.findGeoIntersections(new Ray(new Point(3, 0, 0.5), new Vector(-1, 0, 0)), 10).size(),
                 "Ray's intersection points is in the distance");
+
+        // TC03: Only the closer base is within the distance (1 point)
+        assertEquals(1, cylinder.findGeoIntersections(new Ray(new Point(0.5, 0, 3), new Vector(0, 0, -1)), 2.5).size(),
+                "Ray's intersection with the closer base is in the distance");
     }
 
+    /**
+     * Test method for {@link geometries.Cylinder#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: cylinder along the X axis
+        Cylinder lying = new Cylinder(new Ray(Point.ZERO, new Vector(1, 0, 0)), 1, 2);
+        BoundingBox box = lying.getBoundingBox();
+        assertEquals(new Point(0, -1, -1), box.min, "Bad box minimum for a cylinder along X");
+        assertEquals(new Point(2, 1, 1), box.max, "Bad box maximum for a cylinder along X");
+
+        // TC02: tilted cylinder, the bases reach r * sqrt(1 - d^2) along each axis
+        double e = Math.sqrt(0.5);
+        box = new Cylinder(new Ray(Point.ZERO, new Vector(1, 1, 0)), 1, Math.sqrt(2)).getBoundingBox();
+        assertEquals(new Point(-e, -e, -1), box.min, "Bad box minimum for a tilted cylinder");
+        assertEquals(new Point(1 + e, 1 + e, 1), box.max, "Bad box maximum for a tilted cylinder");
+
+        // TC03: the box of a cylinder along X doesn't hide its intersections
+        assertEquals(2, lying.findGeoIntersections(new Ray(new Point(1.5, 0, 5), new Vector(0, 0, -1))).size(),
+                "Intersections of a cylinder along X are missed");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: cylinder along the Z axis, pointing down
+        box = new Cylinder(new Ray(Point.ZERO, new Vector(0, 0, -1)), 1, 1).getBoundingBox();
+        assertEquals(new Point(-1, -1, -1), box.min, "Bad box minimum for a cylinder pointing down");
+        assertEquals(new Point(1, 1, 0), box.max, "Bad box maximum for a cylinder pointing down");
+    }
 }
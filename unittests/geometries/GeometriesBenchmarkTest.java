@@ -0,0 +1,147 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the storage of the children of a flat collection of geometries: a linked list, an array list,
+ * and the array of {@link Geometries} - the cost of iterating them for closest-hit queries
+ * and their memory per child
+ */
+public class GeometriesBenchmarkTest {
+    /**
+     * The amount of geometries in the collection
+     */
+    private static final int SIZE = 2000;
+    /**
+     * The amount of rays traced through the collection in each round
+     */
+    private static final int RAYS = 2000;
+    /**
+     * The amount of rounds, the fastest round of each storage is reported
+     */
+    private static final int ROUNDS = 10;
+
+    /**
+     * Measure the memory in use, the least of several garbage collections
+     *
+     * @return the used memory in bytes
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * Measure the memory of a list of the geometries, without the geometries themselves
+     *
+     * @param list       creates an empty list
+     * @param geometries the geometries
+     * @return the memory of the list per geometry in bytes
+     */
+    private static double memoryPerChild(Supplier<List<Intersectable>> list, Intersectable[] geometries) {
+        // many lists are measured together, so the measure is above the noise of the collections
+        List<List<Intersectable>> lists = new ArrayList<>();
+        long before = usedMemory();
+        for (int i = 0; i < 100; i++) {
+            List<Intersectable> children = list.get();
+            for (Intersectable geometry : geometries) children.add(geometry);
+            lists.add(children);
+        }
+        long after = usedMemory();
+        Reference.reachabilityFence(lists);
+        return (after - before) / (100d * geometries.length);
+    }
+
+    /**
+     * Find the closest hits of the rays by iterating a list of the geometries
+     *
+     * @param list the geometries
+     * @param rays the rays
+     * @return the sum of the distances of the hits, for comparing the storages
+     */
+    private static double trace(List<Intersectable> list, Ray[] rays) {
+        double sum = 0;
+        for (Ray ray : rays) {
+            HitRecord hit = HitRecord.get(ray, Double.POSITIVE_INFINITY);
+            for (Intersectable geometry : list) geometry.findClosestHit(ray, hit);
+            if (hit.geometry != null) sum += hit.t;
+        }
+        return sum;
+    }
+
+    /**
+     * Find the closest hits of the rays with a collection of the geometries
+     *
+     * @param geometries the collection
+     * @param rays       the rays
+     * @return the sum of the distances of the hits, for comparing the storages
+     */
+    private static double trace(Geometries geometries, Ray[] rays) {
+        double sum = 0;
+        for (Ray ray : rays) {
+            HitRecord hit = HitRecord.get(ray, Double.POSITIVE_INFINITY);
+            if (geometries.findClosestHit(ray, hit)) sum += hit.t;
+        }
+        return sum;
+    }
+
+    /**
+     * Benchmark the storages on a flat collection of random spheres
+     */
+    @Test
+    public void flatSpheres() {
+        Random random = new Random(38);
+        Intersectable[] spheres = new Intersectable[SIZE];
+        for (int i = 0; i < SIZE; i++)
+            spheres[i] = new Sphere(1 + random.nextDouble(), new Point(
+                    random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100));
+        Ray[] rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; i++)
+            rays[i] = new Ray(new Point(0, 0, -300), new Vector(
+                    random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+
+        List<Intersectable> linked = new LinkedList<>(List.of(spheres));
+        List<Intersectable> array = new ArrayList<>(List.of(spheres));
+        Geometries geometries = new Geometries(spheres);
+
+        double expected;
+        double linkedTime = Double.POSITIVE_INFINITY, arrayTime = Double.POSITIVE_INFINITY;
+        double geometriesTime = Double.POSITIVE_INFINITY;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            expected = trace(linked, rays);
+            long linkedEnd = System.nanoTime();
+            assertEquals(expected, trace(array, rays), 1e-6, "Array list found other hits");
+            long arrayEnd = System.nanoTime();
+            assertEquals(expected, trace(geometries, rays), 1e-6, "Geometries found other hits");
+            long geometriesEnd = System.nanoTime();
+            // the fastest round is after the JIT compiled the loops, with the least noise
+            linkedTime = Math.min(linkedTime, (linkedEnd - start) / 1e6);
+            arrayTime = Math.min(arrayTime, (arrayEnd - linkedEnd) / 1e6);
+            geometriesTime = Math.min(geometriesTime, (geometriesEnd - arrayEnd) / 1e6);
+        }
+
+        System.out.printf("%-12s iterate %8.2f ms, %6.1f bytes per child%n", "LinkedList", linkedTime,
+                memoryPerChild(LinkedList::new, spheres));
+        System.out.printf("%-12s iterate %8.2f ms, %6.1f bytes per child%n", "ArrayList", arrayTime,
+                memoryPerChild(ArrayList::new, spheres));
+        System.out.printf("%-12s iterate %8.2f ms%n", "Geometries", geometriesTime);
+    }
+}
@@ -3,6 +3,8 @@ package geometries;
 import org.junit.jupiter.api.Test;
 import primitives.*;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GeometriesTest {
@@ -33,4 +35,175 @@ class GeometriesTest {
         // TC05: all geometries are intersected
         assertEquals(4, geometries.findIntersections(new Ray(new Point(0.6, 0.6, -2), new Vector(0, 0, 1))).size(), "all geometries are intersected");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Geometries#replace(Intersectable, Intersectable)}.
+     */
+    @Test
+    void testReplace() {
+        Sphere moving = new Sphere(1, new Point(10, 0, 0));
+        Geometries bvh = new Geometries(new Sphere(1, new Point(0, 0, 0)), moving,
+                new Sphere(1, new Point(20, 0, 0)), new Sphere(1, new Point(30, 0, 0)),
+                new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)));
+        bvh.makeBVH();
+        Sphere moved = new Sphere(1, new Point(100, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: geometry inside the BVH moved far away, the hierarchy is refitted
+        assertTrue(bvh.replace(moving, moved), "geometry in the BVH was not replaced");
+        assertNull(bvh.findIntersections(new Ray(new Point(10, -5, 0), new Vector(0, 1, 0))),
+                "old location of the geometry is intersected");
+        assertEquals(List.of(new Point(100, -1, 0), new Point(100, 1, 0)),
+                bvh.findIntersections(new Ray(new Point(100, -5, 0), new Vector(0, 1, 0))),
+                "new location of the geometry is not intersected");
+        assertEquals(8, bvh.findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0))).size(),
+                "geometries are missing after the replace");
+
+        // TC02: geometry moved so far that the root's area more than doubles, the root is rebuilt in place
+        Sphere far = new Sphere(1, new Point(10, 0, 0));
+        Geometries tree = new Geometries(new Sphere(1, new Point(0, 0, 0)), far,
+                new Sphere(1, new Point(20, 0, 0)), new Sphere(1, new Point(30, 0, 0)));
+        tree.makeBVH();
+        Geometries root = (Geometries) tree.getGeometries().getFirst();
+        List<Intersectable> built = root.getGeometries();
+        assertTrue(tree.replace(far, new Sphere(1, new Point(100, 0, 0))), "geometry in the BVH was not replaced");
+        assertSame(root, tree.getGeometries().getFirst(), "rebuilt root was not taken over by the old root");
+        List<Intersectable> rebuilt = root.getGeometries();
+        assertEquals(2, rebuilt.size(), "rebuilt root should have two children");
+        assertTrue(rebuilt.stream().noneMatch(built::contains), "root was refitted instead of rebuilt");
+        // refitted, the node of the moved geometry would span the whole hierarchy
+        assertEquals(0, rebuilt.get(0).getBoundingBox().overlapArea(rebuilt.get(1).getBoundingBox()),
+                "children of the rebuilt root overlap");
+        assertEquals(2, tree.findIntersections(new Ray(new Point(100, -5, 0), new Vector(0, 1, 0))).size(),
+                "moved geometry is not intersected through the rebuilt root");
+        assertEquals(8, tree.findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0))).size(),
+                "geometries are missing after the rebuild");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: geometry which is not in the collection
+        assertFalse(bvh.replace(moving, moved), "replaced a geometry which is not in the collection");
+
+        // TC04: refitting the whole hierarchy keeps all the geometries
+        bvh.refit();
+        assertEquals(8, bvh.findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0))).size(),
+                "geometries are missing after the refit");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#makeBVH()}.
+     */
+    @Test
+    void testMakeBVH() {
+        // a grid large enough for building the hierarchy in parallel
+        Geometries bvh = new Geometries();
+        for (int x = 0; x < 40; x++)
+            for (int y = 0; y < 40; y++)
+                bvh.add(new Sphere(0.25, new Point(x, y, 0)));
+        bvh.add(new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)));
+        bvh.makeBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every geometry stays in the hierarchy
+        for (int y = 0; y < 40; y++)
+            assertEquals(80, bvh.findIntersections(new Ray(new Point(-5, y, 0), new Vector(1, 0, 0))).size(),
+                    "geometries are missing from row " + y);
+        assertEquals(3, bvh.findIntersections(new Ray(new Point(17, 23, 5), new Vector(0, 0, -1))).size(),
+                "bad intersections through the grid and the plane");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: a single bounded geometry with an unbounded one
+        Geometries single = new Geometries(new Sphere(1, Point.ZERO), new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)));
+        single.makeBVH();
+        assertEquals(3, single.findIntersections(new Ray(new Point(0, 0, 5), new Vector(0, 0, -1))).size(),
+                "geometries are missing from a small hierarchy");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Geometries bvh = new Geometries(new Sphere(1, new Point(10, 0, 0)), new Sphere(1, new Point(5, 0, 0)),
+                new Sphere(1, new Point(20, 0, 0)), new Plane(new Point(30, 0, 0), new Vector(1, 0, 0)));
+        bvh.makeBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the closest of several geometries
+        assertEquals(new Point(4, 0, 0), bvh.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(1, 0, 0))).point,
+                "Bad closest intersection");
+
+        // TC02: only the unbounded geometry is intersected
+        assertEquals(new Point(30, 5, 0),
+                bvh.findClosestGeoIntersection(new Ray(new Point(0, 5, 0), new Vector(1, 0, 0))).point,
+                "Bad closest intersection with the plane");
+
+        // TC03: no geometry is intersected
+        assertNull(bvh.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(-1, 0, 0))), "No intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: the closest intersection is beyond the maximal distance
+        assertNull(bvh.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(1, 0, 0)), 3),
+                "Intersection beyond the maximal distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#getStatistics()}.
+     */
+    @Test
+    void testGetStatistics() {
+        Geometries scene = new Geometries(new Sphere(1, new Point(0, 0, 5)), new Sphere(1, new Point(5, 0, 5)),
+                new Plane(Point.ZERO, new Vector(0, 0, 1)));
+        scene.makeBVH();
+        Ray down = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+        Ray up = new Ray(new Point(0, 0, 10), new Vector(0, 0, 1));
+        scene.findClosestGeoIntersection(down);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every ray is tested against the plane, and only the first one hits it
+        scene.setStatistics(true);
+        scene.findClosestGeoIntersection(down);
+        scene.findGeoIntersections(up);
+        assertEquals(String.format("geometries: 2 bounded, 1 unbounded%nrays: 2%nunbounded tests: 2 (1.00 per ray), hits: 1"),
+                scene.getStatistics(), "Bad statistics");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: statistics after a reset
+        scene.resetStatistics();
+        assertTrue(scene.getStatistics().contains("rays: 0"), "Statistics were not reset");
+
+        // TC03: rays are not counted while the statistics are off
+        scene.setStatistics(false);
+        scene.findClosestGeoIntersection(down);
+        assertTrue(scene.getStatistics().contains("rays: 0"), "Rays were counted with the statistics off");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#clipUnbounded(BoundingBox)}.
+     */
+    @Test
+    void testClipUnbounded() {
+        Geometries scene = new Geometries(new Sphere(1, new Point(0, 0, 5)), new Sphere(1, new Point(5, 0, 5)),
+                new Plane(Point.ZERO, new Vector(0, 0, 1)));
+        scene.clipUnbounded(new BoundingBox(new Point(-10, -10, -1), new Point(10, 10, 10)));
+        scene.makeBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the plane joined the BVH
+        assertTrue(scene.getStatistics().startsWith("geometries: 3 bounded, 0 unbounded"),
+                "Clipped plane should be bounded");
+
+        // TC02: the plane is hit inside the bounds
+        assertTrue(scene.findIntersections(new Ray(new Point(0, 0, -5), new Vector(0, 0, 1))).contains(Point.ZERO),
+                "Plane is not hit inside the bounds");
+
+        // TC03: the plane is not hit outside the bounds
+        assertNull(scene.findIntersections(new Ray(new Point(20, 0, -5), new Vector(0, 0, 1))),
+                "Plane is hit outside the bounds");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: the plane is hit on the edge of the bounds
+        assertEquals(List.of(new Point(10, 0, 0)),
+                scene.findIntersections(new Ray(new Point(10, 0, -5), new Vector(0, 0, 1))),
+                "Plane is not hit on the edge of the bounds");
+    }
+}
@@ -0,0 +1,22 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.Grid class, its intersections are tested with the other structures
+ * in {@link AccelerationTests}
+ */
+class GridTests {
+    /**
+     * Test method for {@link geometries.Grid#getResolution()}.
+     */
+    @Test
+    void testGetResolution() {
+        // =============== Boundary Values Tests ==================
+        // TC01: a flat grid has a single layer of cells across its thickness
+        assertArrayEquals(new int[]{15, 15, 1}, new Grid(AccelerationTests.flatTriangles()).getResolution(),
+                "Wrong resolution of a flat grid");
+    }
+}
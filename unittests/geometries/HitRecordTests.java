@@ -0,0 +1,72 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.HitRecord class
+ */
+class HitRecordTests {
+    private final Ray ray = new Ray(Point.ZERO, new Vector(0, 0, 1));
+
+    /**
+     * Test method for {@link geometries.HitRecord#offer(double, geometries.Geometry)}.
+     */
+    @Test
+    void testOffer() {
+        Sphere near = new Sphere(1, new Point(0, 0, 3));
+        Sphere far = new Sphere(1, new Point(0, 0, 6));
+        HitRecord hit = new HitRecord().reset(ray, 10);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: first intersection within the maximum distance
+        assertTrue(hit.offer(5, far), "First intersection not recorded");
+        // TC02: closer intersection replaces the recorded one
+        assertTrue(hit.offer(2, near), "Closer intersection not recorded");
+        assertSame(near, hit.geometry, "Wrong geometry");
+        assertEquals(new Point(0, 0, 2), hit.getPoint(), "Wrong point");
+        assertEquals(new Vector(0, 0, -1), hit.getNormal(), "Wrong normal");
+        // TC03: farther intersection is ignored
+        assertFalse(hit.offer(5, far), "Farther intersection recorded");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: intersection at the same distance keeps the first one
+        assertFalse(hit.offer(2, far), "Equally distant intersection recorded");
+        // TC05: first intersection beyond the maximum distance
+        assertFalse(new HitRecord().reset(ray, 1).offer(2, near), "Intersection beyond the maximum distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHit(primitives.Ray, geometries.HitRecord)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Triangle triangle = new Triangle(new Point(-1, -1, 4), new Point(3, -1, 4), new Point(-1, 3, 4));
+        Geometries geometries = new Geometries(new Sphere(1, new Point(0, 0, 8)), triangle,
+                new Plane(new Point(0, 0, 12), new Vector(0, 0, 1)));
+        geometries.makeBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: closest of several geometries, with the barycentric coordinates of the triangle
+        HitRecord hit = new HitRecord().reset(ray, Double.POSITIVE_INFINITY);
+        assertTrue(geometries.findClosestHit(ray, hit), "No intersection");
+        assertSame(triangle, hit.geometry, "Wrong geometry");
+        assertEquals(4, hit.t, 1e-10, "Wrong distance");
+        assertEquals(0.25, hit.u, 1e-10, "Wrong barycentric coordinate");
+        assertEquals(0.25, hit.v, 1e-10, "Wrong barycentric coordinate");
+
+        // TC02: the recorded intersection is kept when nothing closer is found
+        assertFalse(geometries.findClosestHit(new Ray(new Point(5, 5, 0), new Vector(0, 0, 1)), hit),
+                "Intersection beyond the recorded one");
+        assertSame(triangle, hit.geometry, "Recorded intersection changed");
+
+        // TC03: the adapter creates the same intersection point
+        assertEquals(new Point(0, 0, 4), geometries.findClosestGeoIntersection(ray).point, "Wrong point");
+
+        // TC04: the normal calculated on the record is passed on to the GeoPoint
+        Vector normal = hit.getNormal();
+        assertSame(normal, hit.toGeoPoint().getNormal(), "Normal calculated again");
+    }
+}
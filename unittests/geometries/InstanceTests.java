@@ -0,0 +1,123 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.Instance class
+ */
+class InstanceTests {
+    private final Sphere sphere = new Sphere(1, Point.ZERO);
+    private final Instance instance = new Instance(sphere, Transform.scaling(2, 2, 2)
+            .then(Transform.translation(new Vector(10, 0, 0))));
+
+    /**
+     * Test method for {@link geometries.Instance#findGeoIntersections(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the transformed sphere
+        List<Intersectable.GeoPoint> result = instance.findGeoIntersections(ray);
+        assertNotNull(result, "Ray crosses the instance");
+        assertEquals(List.of(new Point(8, 0, 0), new Point(12, 0, 0)),
+                result.stream().map(gp -> gp.point).sorted((a, b) -> Double.compare(a.getX(), b.getX())).toList(),
+                "Bad intersection points");
+
+        // TC02: the normal is transformed to the scene
+        Intersectable.GeoPoint first = result.stream().filter(gp -> gp.point.equals(new Point(8, 0, 0)))
+                .findFirst().orElseThrow();
+        assertEquals(new Vector(-1, 0, 0), first.geometry.getNormal(first.point), "Bad transformed normal");
+
+        // TC03: ray misses the transformed sphere, though it crosses the shared one
+        assertNull(instance.findGeoIntersections(new Ray(new Point(0, 0, -5), new Vector(0, 0, 1))),
+                "Ray misses the instance");
+
+        // TC04: the distance limit is measured in the scene
+        assertEquals(1, instance.findGeoIntersections(ray, 10).size(), "Bad limited intersections");
+
+        // TC05: the material of the instance replaces the material of the shared geometry
+        Material material = new Material().setKd(0.7);
+        instance.setMaterial(material);
+        assertSame(material, instance.findGeoIntersections(ray).getFirst().geometry.getMaterial(),
+                "Instance material was not used");
+
+        // TC06: the emission of the instance replaces the emission of the shared geometry
+        Color emission = new Color(10, 20, 30);
+        instance.setEmission(emission);
+        assertSame(emission, instance.findGeoIntersections(ray).getFirst().geometry.getEmission(),
+                "Instance emission was not used");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#findClosestHit(primitives.Ray, HitRecord)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the hit records the shared geometry and the instance, with the distance and the normal in the scene
+        HitRecord hit = new HitRecord().reset(ray, Double.POSITIVE_INFINITY);
+        assertTrue(instance.findClosestHit(ray, hit), "Ray crosses the instance");
+        assertEquals(8, hit.t, 1e-9, "Bad distance of the hit");
+        assertSame(sphere, hit.geometry, "Hit should record the shared geometry");
+        assertSame(instance, hit.instance, "Hit should record the instance");
+        assertSame(instance, hit.getSceneGeometry(), "Hit should be placed in the scene by the instance");
+        assertEquals(new Vector(-1, 0, 0), hit.getNormal(), "Bad transformed normal");
+
+        // TC02: hits of the same shared geometry through the instance give equal geometries
+        Ray other = new Ray(new Point(0, 0.5, 0), new Vector(1, 0, 0));
+        HitRecord again = new HitRecord().reset(other, Double.POSITIVE_INFINITY);
+        assertTrue(instance.findClosestHit(other, again), "Ray crosses the instance");
+        assertEquals(hit.toGeoPoint().geometry, again.toGeoPoint().geometry,
+                "Hits of the same geometry should be equal");
+        assertEquals(hit.toGeoPoint().geometry, instance.findGeoIntersections(ray).getFirst().geometry,
+                "Intersections of the same geometry should be equal");
+
+        // TC03: the material of the instance replaces the material of the shared geometry
+        Material material = new Material().setKd(0.7);
+        instance.setMaterial(material);
+        assertSame(material, hit.getMaterial(), "Instance material was not used");
+
+        // TC04: an any-hit query passes the shared geometry and the instance to its filter
+        HitRecord any = new HitRecord().reset(ray, Double.POSITIVE_INFINITY);
+        assertTrue(instance.findAnyHit(ray, any, candidate -> candidate.geometry == sphere
+                        && candidate.instance == instance), "Any-hit candidate should record the instance");
+
+        // =============== Boundary Values Tests ==================
+        // TC05: a hit through a nested instance is recorded as the view through the inner instance
+        Instance outer = new Instance(instance, Transform.translation(new Vector(0, 10, 0)));
+        Ray nested = new Ray(new Point(0, 10, 0), new Vector(1, 0, 0));
+        HitRecord through = new HitRecord().reset(nested, Double.POSITIVE_INFINITY);
+        assertTrue(outer.findClosestHit(nested, through), "Ray crosses the nested instance");
+        assertSame(outer, through.instance, "Hit should record the outer instance");
+        assertEquals(new Point(8, 10, 0), through.getPoint(), "Bad point of the nested hit");
+        assertEquals(new Vector(-1, 0, 0), through.getNormal(), "Bad normal of the nested hit");
+        assertSame(material, through.getMaterial(), "Inner instance material was not used");
+        assertEquals(through.getPoint(), through.getPlacedGeometry().findClosestGeoIntersection(nested).point,
+                "The placed geometry should be intersected by itself");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#getBoundingBox()}.
+     */
+    @Test
+    void testBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the box of the instance holds the transformed sphere
+        BoundingBox box = instance.getBoundingBox();
+        assertEquals(new Point(8, -2, -2), box.min, "Bad box minimum");
+        assertEquals(new Point(12, 2, 2), box.max, "Bad box maximum");
+
+        // TC02: unbounded shared geometry gives an unbounded instance
+        assertNull(new Instance(new Plane(Point.ZERO, new Vector(0, 0, 1)), Transform.IDENTITY).getBoundingBox(),
+                "Instance of a plane should be unbounded");
+    }
+}
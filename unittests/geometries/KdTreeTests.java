@@ -0,0 +1,29 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.KdTree class, its intersections are tested with the other structures
+ * in {@link AccelerationTests}
+ */
+class KdTreeTests {
+    /**
+     * Test method for {@link geometries.KdTree#getNodeCount()}.
+     */
+    @Test
+    void testGetNodeCount() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: separate geometries are split
+        assertTrue(new KdTree(AccelerationTests.flatTriangles()).getNodeCount() > 1, "Flat triangles were not split");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: overlapping geometries which can't be split
+        assertEquals(1, new KdTree(List.of(new Sphere(1, Point.ZERO), new Sphere(1, Point.ZERO),
+                new Sphere(1, Point.ZERO))).getNodeCount(), "Overlapping geometries were split");
+    }
+}
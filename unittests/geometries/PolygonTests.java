@@ -8,6 +8,8 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 /**
  * Testing Polygons
  *
@@ -147,6 +149,14 @@ public class PolygonTests {
         assertEquals(1, mesh3.findIntersections(
                         new Ray(new Point(-1, -1, -1), new Vector(1, 1, 1))).size(),
                 "Failed to find the intersection point when the intersection point is inside the Polygon");
+
+        // TC09: the Polygon is parallel to the YZ plane, so it is projected along X
+        Polygon wall = new Polygon(new Point(2, 0, 0), new Point(2, 0, 1), new Point(2, 1, 1), new Point(2, 1, 0));
+        assertEquals(List.of(new Point(2, 0.5, 0.25)),
+                wall.findIntersections(new Ray(new Point(0, 0.5, 0.25), new Vector(1, 0, 0))),
+                "Failed to find the intersection point with a Polygon parallel to the YZ plane");
+        assertNull(wall.findIntersections(new Ray(new Point(0, 1.5, 0.25), new Vector(1, 0, 0))),
+                "Found an intersection point outside a Polygon parallel to the YZ plane");
     }
 
     /**
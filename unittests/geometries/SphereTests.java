@@ -3,6 +3,7 @@ package geometries;
 import org.junit.jupiter.api.Test;
 import primitives.*;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
@@ -135,4 +136,42 @@ class SphereTests {
         assertEquals(2, sphere.findGeoIntersections(new Ray(new Point(0, 0.5, 3), new Vector(0, 0, -1)), 10).size(),
                 "Ray's intersection points is in the distance");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Sphere#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the sphere, the nearer point is found
+        assertEquals(new Point(0, 0, 2), sphere.findClosestGeoIntersection(new Ray(new Point(0, 0, 3), new Vector(0, 0, -1))).point,
+                "Bad closest intersection");
+
+        // TC02: ray starts inside the sphere
+        assertEquals(new Point(0, 0, 0), sphere.findClosestGeoIntersection(new Ray(p8, new Vector(0, 0, -1))).point,
+                "Bad closest intersection from inside the sphere");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: the nearer point is beyond the maximum distance
+        assertNull(sphere.findClosestGeoIntersection(new Ray(new Point(0, 0, 3), new Vector(0, 0, -1)), 0.5),
+                "Intersection beyond the maximum distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Sphere#findAnyGeoIntersection(primitives.Ray, double, java.util.function.Predicate)}.
+     */
+    @Test
+    void testFindAnyGeoIntersection() {
+        Ray ray = new Ray(new Point(0, 0, 3), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the first accepted intersection ends the search
+        assertEquals(new Point(0, 0, 2), sphere.findAnyGeoIntersection(ray, 10, gp -> true).point,
+                "Bad accepted intersection");
+
+        // TC02: rejected intersections are all passed to the filter
+        List<Point> rejected = new ArrayList<>();
+        assertNull(sphere.findAnyGeoIntersection(ray, 10, gp -> !rejected.add(gp.point)), "Accepted a rejected intersection");
+        assertEquals(List.of(new Point(0, 0, 2), new Point(0, 0, 0)), rejected, "Bad intersections passed to the filter");
+    }
+}
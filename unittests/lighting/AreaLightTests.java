@@ -0,0 +1,73 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for lighting.AreaLight class
+ */
+class AreaLightTests {
+    private final Color color = new Color(100, 100, 100);
+    private final Point center = new Point(1, 2, 3);
+
+    /**
+     * Test method for {@link lighting.AreaLight#AreaLight(Color, Point, Vector, Vector)}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a rectangle
+        assertDoesNotThrow(() -> new AreaLight(color, center, new Vector(2, 0, 0), new Vector(0, 4, 0)),
+                "Failed constructing a rectangle light");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: parallel edges
+        assertThrows(IllegalArgumentException.class,
+                () -> new AreaLight(color, center, new Vector(2, 0, 0), new Vector(-1, 0, 0)),
+                "Constructed a light with parallel edges");
+        // TC03: a disk without a radius
+        assertThrows(IllegalArgumentException.class, () -> new AreaLight(color, center, new Vector(0, 0, 1), 0),
+                "Constructed a disk light without a radius");
+    }
+
+    /**
+     * Test method for {@link lighting.AreaLight#getSample(double, double)}.
+     */
+    @Test
+    void testGetSample() {
+        Vector normal = new Vector(0, 0, 1);
+        AreaLight disk = new AreaLight(color, center, normal, 2);
+        AreaLight rectangle = new AreaLight(color, center, new Vector(2, 0, 0), new Vector(0, 4, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a point inside the disk, on its plane
+        Point sample = disk.getSample(0.3, 0.8);
+        assertEquals(0, sample.subtract(center).dotProduct(normal), 1e-10, "Sample not on the plane of the disk");
+        assertTrue(sample.distance(center) < 2, "Sample out of the disk");
+        // TC02: a point inside the rectangle
+        assertEquals(new Point(0.5, 3, 3), rectangle.getSample(0.25, 0.75), "Wrong sample of the rectangle");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: the center of the square is the center of the light
+        assertEquals(center, disk.getSample(0.5, 0.5), "Wrong center of the disk");
+        // TC04: the edge of the square is on the rim of the disk
+        assertEquals(2, disk.getSample(1, 0.3).distance(center), 1e-10, "Sample not on the rim of the disk");
+        // TC05: the corners of the square are the corners of the rectangle
+        assertEquals(new Point(0, 0, 3), rectangle.getSample(0, 0), "Wrong corner of the rectangle");
+        assertEquals(new Point(2, 4, 3), rectangle.getSample(1, 1), "Wrong corner of the rectangle");
+    }
+
+    /**
+     * Test method for {@link lighting.AreaLight#getInfluenceRadius()}.
+     */
+    @Test
+    void testGetInfluenceRadius() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the radius of the center is widened by the size of the light
+        assertEquals(new PointLight(color, center).setKl(0.5).getInfluenceRadius() + 4,
+                new AreaLight(color, center, new Vector(0, 0, 1), 2).setKl(0.5).getInfluenceRadius(), 1e-6,
+                "Wrong influence radius");
+    }
+}
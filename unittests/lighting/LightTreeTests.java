@@ -0,0 +1,81 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for lighting.LightTree class
+ */
+class LightTreeTests {
+
+    /**
+     * Test method for {@link lighting.LightTree#sample(primitives.Point, double)}.
+     */
+    @Test
+    void testSample() {
+        Color white = new Color(100, 100, 100);
+        List<LightSource> lights = List.of(
+                new PointLight(white, new Point(-10, 0, 0)).setKq(0.01),
+                new DirectionalLight(white, new Vector(0, 0, -1)),
+                new PointLight(white, new Point(10, 0, 0)).setKq(0.01),
+                new SpotLight(white, new Vector(0, 0, -1), new Point(100, 0, 0)).setKq(0.01));
+        LightTree tree = new LightTree(lights);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the directional light is not in the tree
+        assertEquals(3, tree.size(), "Wrong amount of lights in the tree");
+        assertEquals(1, tree.getGlobalCount(), "Wrong amount of lights out of the tree");
+        assertEquals(1, tree.getGlobalLight(0), "Wrong light out of the tree");
+
+        // TC02: each light is sampled with the probability it reports, and the nearest light is the most probable
+        Point point = new Point(-8, 0, 0);
+        int samples = 10000;
+        double[] frequency = new double[lights.size()];
+        double[] probability = new double[lights.size()];
+        for (int i = 0; i < samples; i++) {
+            LightTree.Sample sample = tree.sample(point, (i + 0.5) / samples);
+            frequency[sample.light()] += 1d / samples;
+            probability[sample.light()] = sample.probability();
+        }
+        for (int light : new int[]{0, 2, 3})
+            assertEquals(probability[light], frequency[light], 1e-3, "Wrong probability of light " + light);
+        assertEquals(0, frequency[1], "Sampled a light out of the tree");
+        assertTrue(probability[0] > probability[2] && probability[2] > probability[3],
+                "Nearer lights should be more probable");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a tree without positioned lights
+        assertNull(new LightTree(List.of(lights.get(1))).sample(point, 0.5), "Sampled an empty tree");
+    }
+
+    /**
+     * Test method for {@link lighting.LightTree#collect(primitives.Point, int[])}.
+     */
+    @Test
+    void testCollect() {
+        Color white = new Color(100, 100, 100);
+        List<LightSource> lights = List.of(
+                new PointLight(white, new Point(1000, 0, 0)).setKq(1),
+                new PointLight(white, new Point(0, 0, 0)).setKq(1),
+                new DirectionalLight(white, new Vector(0, 0, -1)),
+                new SpotLight(white, new Vector(0, 0, -1), new Point(0, 0, 10)),
+                new PointLight(white, new Point(-100, 0, 0)));
+        LightTree tree = new LightTree(lights);
+        int[] collected = new int[lights.size()];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the lights reaching a point are collected in their order, without the far attenuated light
+        // and the spot light which faces away
+        int count = tree.collect(new Point(1, 0, 20), collected);
+        assertArrayEquals(new int[]{1, 2, 4}, Arrays.copyOf(collected, count), "Wrong lights reach the point");
+
+        // TC02: a point in front of the spot light, near the far light
+        count = tree.collect(new Point(999, 0, 0), collected);
+        assertArrayEquals(new int[]{0, 2, 3, 4}, Arrays.copyOf(collected, count), "Wrong lights reach the point");
+    }
+}
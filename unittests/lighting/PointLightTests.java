@@ -0,0 +1,54 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for lighting.PointLight class
+ */
+class PointLightTests {
+    private final Color color = new Color(100, 100, 100);
+
+    /**
+     * Test method for {@link lighting.PointLight#getInfluenceRadius()}.
+     */
+    @Test
+    void testGetInfluenceRadius() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: quadratic attenuation - the intensity at the radius is the visibility threshold
+        PointLight light = new PointLight(color, Point.ZERO).setKl(0.01).setKq(0.001);
+        double radius = light.getInfluenceRadius();
+        assertEquals(300 / (1 + 0.01 * radius + 0.001 * radius * radius), 0.001, 1e-9, "Wrong quadratic radius");
+
+        // TC02: linear attenuation
+        assertEquals((300 / 0.001 - 1) / 0.5, new PointLight(color, Point.ZERO).setKl(0.5).getInfluenceRadius(),
+                1e-6, "Wrong linear radius");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: no attenuation by the distance
+        assertEquals(Double.POSITIVE_INFINITY, new PointLight(color, Point.ZERO).getInfluenceRadius(),
+                "Unattenuated light should reach everywhere");
+        // TC04: a light too weak to be seen anywhere
+        assertEquals(0, new PointLight(color, Point.ZERO).setKc(1e6).setKq(1).getInfluenceRadius(),
+                "Too weak light should reach nowhere");
+    }
+
+    /**
+     * Test method for {@link lighting.SpotLight#illuminates(primitives.Point)}.
+     */
+    @Test
+    void testIlluminates() {
+        SpotLight spot = new SpotLight(color, new Vector(0, 0, -1), Point.ZERO);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a point in front of the spot light
+        assertTrue(spot.illuminates(new Point(5, 0, -1)), "Point in front of the spot light");
+        // TC02: a point behind the spot light
+        assertFalse(spot.illuminates(new Point(0, 0, 1)), "Point behind the spot light");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a point beside the spot light, where the cone gives no intensity
+        assertFalse(spot.illuminates(new Point(1, 0, 0)), "Point beside the spot light");
+    }
+}
@@ -0,0 +1,38 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Material class
+ */
+class MaterialTests {
+
+    /**
+     * Test method for the flags of the factors, e.g. {@link primitives.Material#hasDiffuse()}.
+     */
+    @Test
+    void testFlags() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the flags follow the factors set
+        Material material = new Material().setKd(0.5).setKt(0.3);
+        assertTrue(material.hasDiffuse(), "Material with kD should be diffuse");
+        assertFalse(material.hasSpecular(), "Material without kS should not be specular");
+        assertFalse(material.hasReflection(), "Material without kR should not reflect");
+        assertTrue(material.hasTransparency(), "Material with kT should be transparent");
+        assertFalse(material.isOpaque(), "Material with kT should not be opaque");
+
+        // TC02: the flags follow a factor set again
+        material.setKt(0).setKr(new Double3(0, 0.2, 0));
+        assertTrue(material.isOpaque(), "Material without kT should be opaque");
+        assertTrue(material.hasReflection(), "Material with kR in one color should reflect");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a new material has no effects
+        Material empty = new Material();
+        assertFalse(empty.hasDiffuse() || empty.hasSpecular() || empty.hasReflection() || empty.hasTransparency(),
+                "New material should have no effects");
+        assertTrue(empty.isOpaque(), "New material should be opaque");
+    }
+}
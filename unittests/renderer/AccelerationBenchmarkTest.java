@@ -0,0 +1,120 @@
+package renderer;
+
+import geometries.Acceleration;
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.JsonScene;
+import scene.RenderScene;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the acceleration structures on the scenes in jsonScenes: the time and the memory to compile each scene
+ * with them, the time to trace its camera rays, and that they find the same closest intersections
+ */
+public class AccelerationBenchmarkTest {
+    /**
+     * The amount of camera rays along each side of the view plane
+     */
+    private static final int RESOLUTION = 100;
+
+    /**
+     * Measure the memory in use, the least of several garbage collections
+     *
+     * @return the used memory in bytes
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * Benchmark a scene with all the acceleration structures
+     *
+     * @param file      the name of the scene file
+     * @param location  the location of the camera
+     * @param direction the direction of the camera
+     * @param up        the up direction of the camera
+     * @param distance  the distance of the view plane
+     */
+    private void benchmark(String file, Point location, Vector direction, Vector up, double distance)
+            throws Exception {
+        Scene scene = JsonScene.importScene("jsonScenes/" + file);
+        Camera camera = Camera.getBuilder()
+                .setImageWriter(new ImageWriter("benchmark", RESOLUTION, RESOLUTION))
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setDirection(direction.normalize(), up.normalize()).setLocation(location)
+                .setVpDistance(distance).setVpSize(150, 150)
+                .build();
+
+        // the scene is compiled with all the structures before tracing, so only the compiled scenes are kept
+        // between the measures of the memory
+        Acceleration[] accelerations = Acceleration.values();
+        RenderScene[] compiled = new RenderScene[accelerations.length];
+        double[] built = new double[accelerations.length];
+        long[] memory = new long[accelerations.length];
+        for (int a = 0; a < accelerations.length; a++) {
+            memory[a] = usedMemory();
+            long begin = System.nanoTime();
+            compiled[a] = scene.setAcceleration(accelerations[a]).compile();
+            built[a] = (System.nanoTime() - begin) / 1e6;
+            memory[a] = usedMemory() - memory[a];
+        }
+
+        double[] expected = null;
+        for (int a = 0; a < accelerations.length; a++) {
+            double[] distances = new double[RESOLUTION * RESOLUTION];
+            for (int i = 0; i < RESOLUTION; i++)
+                for (int j = 0; j < RESOLUTION; j++) {
+                    GeoPoint hit = compiled[a].geometries
+                            .findClosestGeoIntersection(camera.constructRay(RESOLUTION, RESOLUTION, j, i));
+                    distances[i * RESOLUTION + j] = hit == null ? -1 : hit.point.distance(location);
+                }
+
+            // the ray tracer compiles the scene on its first ray, which is not timed
+            SimpleRayTracer tracer = new SimpleRayTracer(scene.setAcceleration(accelerations[a]));
+            tracer.traceRay(camera.constructRay(RESOLUTION, RESOLUTION, 0, 0));
+            long start = System.nanoTime();
+            for (int i = 0; i < RESOLUTION; i++)
+                for (int j = 0; j < RESOLUTION; j++)
+                    tracer.traceRay(camera.constructRay(RESOLUTION, RESOLUTION, j, i));
+            long traced = System.nanoTime();
+            System.out.printf("%-20s %-8s build %8.2f ms, %8.1f KB, trace %8.2f ms%n", file, accelerations[a],
+                    built[a], memory[a] / 1024d, (traced - start) / 1e6);
+
+            if (expected == null) expected = distances;
+            for (int i = 0; i < distances.length; i++)
+                assertEquals(expected[i], distances[i], 1e-7,
+                        accelerations[a] + " found another intersection in " + file + " at ray " + i);
+        }
+    }
+
+    /**
+     * Benchmark the scenes of the MINIP tests, with their cameras
+     */
+    @Test
+    public void minipScenes() throws Exception {
+        benchmark("multydiamonds.json", new Point(0, -350, 45), new Vector(0, 1, -0.1), new Vector(0, 1, 10), 500);
+        benchmark("diamondRing.json", new Point(0, -350, 60), new Vector(0, 1, -0.1), new Vector(0, 0.1, 1), 500);
+        benchmark("snooker.json", new Point(-180, -35, 30), new Vector(1, 0.2, 0), new Vector(0, 0, 1), 200);
+        benchmark("crown.json", new Point(0, -320, 40), new Vector(0, 1, -0.1), new Vector(0, 1, 10), 500);
+        benchmark("house.json", new Point(0, -320, 40), new Vector(0, 1, -0.1), new Vector(0, 1, 10), 500);
+    }
+
+    /**
+     * Benchmark the scene of the JSON syntax example
+     */
+    @Test
+    public void syntaxScene() throws Exception {
+        benchmark("syntax.json", new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0), 1000);
+    }
+}
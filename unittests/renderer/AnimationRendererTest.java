@@ -0,0 +1,115 @@
+package renderer;
+
+import static java.awt.Color.BLUE;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static primitives.Util.isZero;
+
+/**
+ * Testing CameraPath and AnimationRenderer
+ */
+class AnimationRendererTest {
+
+    /**
+     * Test method for {@link renderer.CameraPath#getFrame(int, int)}.
+     */
+    @Test
+    void testGetFrame() {
+        CameraPath path = new CameraPath()
+                .addKeyframe(new Point(0, 0, 10), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .addKeyframe(new Point(10, 0, 0), new Vector(-1, 0, 0), new Vector(0, 1, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: frame between the keyframes is interpolated and stays orthogonal
+        CameraPath.Keyframe middle = path.getFrame(1, 3);
+        assertEquals(new Point(5, 0, 5), middle.p0(), "Bad interpolated location");
+        assertEquals(new Vector(-1, 0, -1).normalize(), middle.vTo(), "Bad interpolated direction");
+        assertTrue(isZero(middle.vTo().dotProduct(middle.vUp())), "Interpolated directions are not orthogonal");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: first and last frames are the keyframes
+        assertEquals(new Point(0, 0, 10), path.getFrame(0, 3).p0(), "Bad first frame");
+        assertEquals(new Point(10, 0, 0), path.getFrame(2, 3).p0(), "Bad last frame");
+
+        // TC03: frame out of the animation
+        assertThrows(IllegalArgumentException.class, () -> path.getFrame(3, 3), "Frame out of the animation");
+
+        // TC04: keyframes facing opposite directions can't be interpolated
+        assertThrows(IllegalArgumentException.class,
+                () -> path.addKeyframe(new Point(0, 0, -10), new Vector(1, 0, 0), new Vector(0, 1, 0)),
+                "Opposite directions");
+        assertThrows(IllegalArgumentException.class,
+                () -> new CameraPath()
+                        .addKeyframe(Point.ZERO, new Vector(1, 0, 0), new Vector(0, 1, 0))
+                        .addKeyframe(Point.ZERO, new Vector(-1, 0, 0), new Vector(0, 0, 1))
+                        .setLoop(true),
+                "Opposite directions from the last keyframe to the first");
+    }
+
+    /**
+     * Test method for {@link renderer.CameraPath#turntable(Point, double, double, int)}.
+     */
+    @Test
+    void testTurntable() {
+        Point target = new Point(0, 0, 30);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every frame is on the circle and looks at the target
+        CameraPath path = CameraPath.turntable(target, 300, 100, 4);
+        for (int frame = 0; frame < 10; frame++) {
+            CameraPath.Keyframe keyframe = path.getFrame(frame, 10);
+            Vector toTarget = target.subtract(keyframe.p0());
+            assertEquals(Math.sqrt(300 * 300 + 100 * 100), toTarget.length(), 1e-9,
+                    "Frame " + frame + " is off the circle");
+            assertEquals(toTarget.normalize(), keyframe.vTo(), "Frame " + frame + " doesn't look at the target");
+            assertTrue(isZero(keyframe.vTo().dotProduct(keyframe.vUp())), "Directions are not orthogonal");
+        }
+
+        // TC02: a frame per keyframe ends a keyframe before the start, so the animation loops smoothly
+        assertEquals(4, path.size(), "Bad amount of keyframes");
+        assertEquals(new Point(0, -300, 130), path.getFrame(3, 4).p0(), "Bad last frame");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: two keyframes on opposite sides of the target
+        CameraPath two = CameraPath.turntable(target, 300, 100, 2);
+        assertEquals(new Point(0, 300, 130), two.getFrame(1, 4).p0(), "Bad frame between opposite keyframes");
+    }
+
+    /**
+     * Test method for {@link renderer.AnimationRenderer#render()}.
+     */
+    @Test
+    void testRender() {
+        Scene scene = new Scene("turntable")
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.geometries.add(
+                new Sphere(30, new Point(0, 0, 30)).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)),
+                new Plane(Point.ZERO, new Vector(0, 0, 1)).setEmission(new Color(60, 60, 60))
+                        .setMaterial(new Material().setKd(0.5)));
+        scene.lights.add(new SpotLight(new Color(700, 400, 400), new Vector(-1, -1, -2), new Point(100, 100, 200))
+                .setKl(0.0004).setKq(0.0000006));
+
+        int frames = new AnimationRenderer(scene, Camera.getBuilder().setVpDistance(200).setVpSize(150, 150),
+                CameraPath.turntable(new Point(0, 0, 30), 300, 100, 4))
+                .setName("turntable")
+                .setFrames(3)
+                .setResolution(50, 50)
+                .render();
+
+        assertEquals(3, frames, "Bad amount of frames");
+        for (int frame = 0; frame < frames; frame++)
+            assertTrue(new File(System.getProperty("user.dir") + "/images/turntable_000" + frame + ".png").exists(),
+                    "Frame " + frame + " was not written");
+    }
+}
@@ -0,0 +1,122 @@
+package renderer;
+
+import geometries.Instance;
+import geometries.Intersectable.GeoPoint;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.RadianceCache class
+ */
+class RadianceCacheTests {
+    private final Plane plane = new Plane(Point.ZERO, new Vector(0, 0, 1));
+    private final Vector up = new Vector(0, 0, 1);
+
+    /**
+     * Test method for {@link renderer.RadianceCache#get(geometries.Geometry, primitives.Point, primitives.Vector)}.
+     */
+    @Test
+    void testGet() {
+        RadianceCache cache = new RadianceCache(2);
+        cache.put(plane, new Point(0.9, 0, 0), up, new Color(100, 100, 100));
+        cache.put(plane, new Point(1.1, 0, 0), up, new Color(110, 110, 110));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: colors around the point are interpolated, also across the border of the cells
+        assertEquals(new java.awt.Color(105, 105, 105), cache.get(plane, new Point(1, 0, 0), up).getColor(),
+                "Wrong interpolation");
+        // TC02: a point far from the cached colors
+        assertNull(cache.get(plane, new Point(5, 0, 0), up), "Color reused for a far point");
+        // TC03: the other side of the surface
+        assertNull(cache.get(plane, new Point(1, 0, 0), up.scale(-1)), "Color reused for the other side");
+        // TC04: another geometry at the same point
+        assertNull(cache.get(new Sphere(1, new Point(1, 0, 1)), new Point(1, 0, 0), up),
+                "Color reused for another geometry");
+
+        // =============== Boundary Values Tests ==================
+        // TC05: a point with one of the cached colors at the radius, which is not interpolated
+        assertEquals(new java.awt.Color(100, 100, 100), cache.get(plane, new Point(0.1, 0, 0), up).getColor(),
+                "Color interpolated from the radius");
+        // TC06: a point at the radius of the cached colors
+        assertNull(cache.get(plane, new Point(0.9, 1, 0), up), "Color reused at the radius");
+    }
+
+    /**
+     * Test method for {@link renderer.RadianceCache#get(geometries.Geometry, primitives.Point, primitives.Vector)}
+     * across a change of the lighting
+     */
+    @Test
+    void testGetEdge() {
+        RadianceCache cache = new RadianceCache(2);
+        cache.put(plane, new Point(0.9, 0, 0), up, new Color(100, 100, 100));
+        cache.put(plane, new Point(1.1, 0, 0), up, new Color(20, 20, 20));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: cached colors on both sides of a shadow edge are not interpolated
+        assertNull(cache.get(plane, new Point(1, 0, 0), up), "Colors interpolated across a shadow edge");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: a point near only one side of the edge reuses its color
+        assertEquals(new java.awt.Color(100, 100, 100), cache.get(plane, new Point(0.1, 0, 0), up).getColor(),
+                "Color of one side not reused");
+    }
+
+    /**
+     * Test method for {@link renderer.RadianceCache#get(geometries.Geometry, primitives.Point, primitives.Vector)}
+     * with the geometries of an instance
+     */
+    @Test
+    void testGetInstanced() {
+        Sphere shared = new Sphere(1, Point.ZERO);
+        Transform translation = Transform.translation(new Vector(0, 0, 10));
+        Instance instance = new Instance(shared, translation);
+        GeoPoint first = instance.findGeoIntersections(new Ray(Point.ZERO, up)).getFirst();
+        GeoPoint second = instance.findGeoIntersections(new Ray(new Point(0.01, 0, 0), up)).getFirst();
+        RadianceCache cache = new RadianceCache(2);
+        cache.put(first.geometry, first.point, up.scale(-1), new Color(100, 100, 100));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: another hit of the same instanced geometry reuses its color
+        assertEquals(new java.awt.Color(100, 100, 100),
+                cache.get(second.geometry, second.point, up.scale(-1)).getColor(), "Instanced color not reused");
+
+        // TC02: the same shared geometry in another instance is another surface
+        GeoPoint other = new Instance(shared, translation).findGeoIntersections(new Ray(new Point(0.01, 0, 0), up)).getFirst();
+        assertNull(cache.get(other.geometry, other.point, up.scale(-1)), "Color reused for another instance");
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setRadianceCache(double)}: a floor lit through a translucent
+     * occluder is seen in a weak mirror and in a perfect mirror
+     */
+    @Test
+    void testTracedPaths() {
+        Scene scene = new Scene("radiance cache paths");
+        scene.geometries.add(
+                new Plane(Point.ZERO, up).setMaterial(new Material().setKd(1)),
+                new Polygon(new Point(-1, -1, 5), new Point(1, -1, 5), new Point(1, 1, 5), new Point(-1, 1, 5))
+                        .setMaterial(new Material().setKt(0.01)),
+                new Polygon(new Point(5, -1, 0.5), new Point(5, 1, 0.5), new Point(5, 1, 3), new Point(5, -1, 3))
+                        .setMaterial(new Material().setKr(0.05)),
+                new Polygon(new Point(-5, -1, 0.5), new Point(-5, 1, 0.5), new Point(-5, 1, 3), new Point(-5, -1, 3))
+                        .setMaterial(new Material().setKr(1)));
+        scene.lights.add(new PointLight(new Color(10000, 10000, 10000), new Point(0, 0, 10)));
+        SimpleRayTracer rayTracer = new SimpleRayTracer(scene).setRadianceCache(1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the floor seen in the weak mirror is too attenuated for the light through the occluder,
+        // but its cached color is shaded without the attenuation of the path
+        double weak = rayTracer.traceRay(new Ray(new Point(2, 0, 3), new Vector(8, 0, -3))).sum();
+        assertEquals(15, weak, 0.01, "Wrong color in the weak mirror");
+        // TC02: the floor next to it, seen in the perfect mirror, reuses the cached color at its own attenuation
+        assertEquals(weak / 0.05, rayTracer.traceRay(new Ray(new Point(-2, 0.1, 3), new Vector(-8, 0, -3))).sum(),
+                1e-9, "Cached color attenuated by the path which cached it");
+    }
+}
@@ -0,0 +1,198 @@
+package renderer;
+
+import geometries.Acceleration;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Vector;
+import scene.JsonScene;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RenderCoordinator and RenderWorker with worker processes on this machine
+ */
+class RenderCoordinatorTest {
+    private static final String SCENE = "jsonScenes/syntax.json";
+    private static final int SIZE = 40;
+    /**
+     * Milliseconds a test worker tries to connect to the coordinator, and the tests wait for it
+     */
+    private static final int CONNECT_TIMEOUT = 30000;
+
+    /**
+     * Camera builder of the tests
+     */
+    private final Camera.Builder cameraBuilder = Camera.getBuilder()
+            .setLocation(new Point(0, 0, 1000)).setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+            .setVpDistance(1000)
+            .setVpSize(500, 500);
+
+    /**
+     * Render the scene in this process
+     *
+     * @return the image writer holding the image
+     */
+    private ImageWriter renderLocally() throws Exception {
+        ImageWriter imageWriter = new ImageWriter("distributed local", SIZE, SIZE);
+        cameraBuilder
+                .setImageWriter(imageWriter)
+                .setRayTracer(new SimpleRayTracer(JsonScene.importScene(SCENE)))
+                .build()
+                .renderImage();
+        return imageWriter;
+    }
+
+    /**
+     * Compare two images pixel by pixel
+     */
+    private void assertSameImage(ImageWriter expected, ImageWriter actual) {
+        for (int y = 0; y < SIZE; y++)
+            for (int x = 0; x < SIZE; x++)
+                assertEquals(expected.getPixel(x, y).getColor(), actual.getPixel(x, y).getColor(),
+                        "Bad pixel (" + x + "," + y + ")");
+    }
+
+    /**
+     * Find a free port for the coordinator
+     *
+     * @return the port
+     */
+    private static int freePort() throws Exception {
+        try (ServerSocket free = new ServerSocket(0)) {
+            return free.getLocalPort();
+        }
+    }
+
+    /**
+     * Start a worker thread which connects to the coordinator once it listens, reads the setup and a tile,
+     * and dies without rendering the tile
+     *
+     * @param port  the port of the coordinator
+     * @param setup receives the camera the worker built from the setup
+     * @return the worker thread
+     */
+    private static Thread startDeadWorker(int port, AtomicReference<Camera> setup) {
+        Thread worker = new Thread(() -> {
+            long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT;
+            while (System.currentTimeMillis() < deadline) {
+                try (Socket socket = new Socket("localhost", port)) {
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                    setup.set(RenderWorker.readSetup(in, 1));
+                    RenderWorker.readTile(in);
+                    return;
+                } catch (Exception e) {
+                    // the coordinator isn't listening yet
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        });
+        worker.start();
+        return worker;
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#render()} with several workers
+     */
+    @Test
+    void testRender() throws Exception {
+        ImageWriter imageWriter = new ImageWriter("distributed", SIZE, SIZE);
+        Camera camera = cameraBuilder
+                .setImageWriter(imageWriter)
+                .setRayTracer(new SimpleRayTracer(JsonScene.importScene(SCENE)))
+                .build();
+
+        new RenderCoordinator(camera, SCENE)
+                .setTileSize(8)
+                .setLocalWorkers(3)
+                .render();
+
+        assertSameImage(renderLocally(), imageWriter);
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#render()} when a worker dies in the middle of a tile
+     */
+    @Test
+    void testRenderDeadWorker() throws Exception {
+        int port = freePort();
+        // a worker which takes a tile and dies without rendering it
+        AtomicReference<Camera> setup = new AtomicReference<>();
+        Thread deadWorker = startDeadWorker(port, setup);
+
+        ImageWriter imageWriter = new ImageWriter("distributed dead worker", SIZE, SIZE);
+        Camera camera = cameraBuilder
+                .setImageWriter(imageWriter)
+                .setRayTracer(new SimpleRayTracer(JsonScene.importScene(SCENE)))
+                .build();
+
+        new RenderCoordinator(camera, SCENE)
+                .setTileSize(8)
+                .setPort(port)
+                .setLocalWorkers(1)
+                .render();
+        deadWorker.join(CONNECT_TIMEOUT);
+        assertNotNull(setup.get(), "The dead worker never connected");
+
+        assertSameImage(renderLocally(), imageWriter);
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#render()} sending the settings of the ray tracer
+     * and the acceleration structure of the scene to the workers
+     */
+    @Test
+    void testRenderSetup() throws Exception {
+        int port = freePort();
+        AtomicReference<Camera> setup = new AtomicReference<>();
+        Thread worker = startDeadWorker(port, setup);
+
+        Camera camera = cameraBuilder
+                .setImageWriter(new ImageWriter("distributed setup", SIZE, SIZE))
+                .setRayTracer(new SimpleRayTracer(JsonScene.importScene(SCENE).setAcceleration(Acceleration.GRID))
+                        .setLightSamples(2).setShadowSamples(9).setRussianRoulette(0.1)
+                        .setRadianceCache(5))
+                .build();
+        new RenderCoordinator(camera, SCENE)
+                .setTileSize(8)
+                .setPort(port)
+                .setLocalWorkers(1)
+                .render();
+        worker.join(CONNECT_TIMEOUT);
+        assertNotNull(setup.get(), "The worker never connected");
+
+        SimpleRayTracer rayTracer = (SimpleRayTracer) setup.get().getRayTracer();
+        assertEquals(Acceleration.GRID, rayTracer.scene.getAcceleration(), "Bad acceleration structure");
+        assertEquals(2, rayTracer.getLightSamples(), "Bad amount of light samples");
+        assertEquals(9, rayTracer.getShadowSamples(), "Bad amount of shadow samples");
+        assertEquals(0.1, rayTracer.getRussianRoulette(), "Bad russian roulette threshold");
+        assertEquals(5, rayTracer.getRadianceCache(), "Bad radiance cache spacing");
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#render()} when the local workers can't start
+     */
+    @Test
+    void testRenderWorkersExit() throws Exception {
+        Camera camera = cameraBuilder
+                .setImageWriter(new ImageWriter("distributed exit", SIZE, SIZE))
+                .setRayTracer(new SimpleRayTracer(JsonScene.importScene(SCENE)))
+                .build();
+
+        long start = System.currentTimeMillis();
+        // the workers are started with a class path which doesn't hold them
+        assertThrows(IllegalStateException.class,
+                () -> new RenderCoordinator(camera, SCENE).setWorkerClassPath("missing").setLocalWorkers(2).render(),
+                "Render didn't fail when the workers exited");
+        assertTrue(System.currentTimeMillis() - start < CONNECT_TIMEOUT, "Render waited for the timeout");
+    }
+}
@@ -1,11 +1,14 @@
 package renderer;
 
 import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
 import geometries.*;
 import lighting.AmbientLight;
+import lighting.AreaLight;
 import lighting.SpotLight;
 import primitives.*;
 import scene.Scene;
@@ -109,4 +112,37 @@ public class ShadowTests {
                 .writeToImage();
     }
 
-}
\ No newline at end of file
+    /** Test the cache of the last occluder of each light: a shadow ray of a neighbouring point
+     * is blocked by the sphere which blocked the previous one, without traversing the scene */
+    @Test
+    public void occluderCache() {
+        scene.geometries.add(
+                new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material().setKd(0.5)),
+                new Sphere(10d, new Point(0, 0, 50)));
+        scene.lights.add(new SpotLight(new Color(WHITE), new Vector(0, 0, -1), new Point(0, 0, 100)));
+        SimpleRayTracer tracer = new SimpleRayTracer(scene);
+
+        tracer.traceRay(new Ray(new Point(-100, 0, 10), new Vector(1, 0, -0.1)));
+        tracer.traceRay(new Ray(new Point(-100, 0, 10), new Vector(1, 0.01, -0.1)));
+        assertEquals(String.format("shadow rays: 2%noccluder cache hits: 1 (50.00%%)"), tracer.getStatistics(),
+                "The second shadow ray was not blocked by the cached occluder");
+    }
+
+    /** Test the adaptive shadow rays of an area light: the corners of the grid on the light agree in the umbra
+     * and in the light, and only the penumbra is sampled by the full grid */
+    @Test
+    public void softShadowSampling() {
+        scene.geometries.add(
+                new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material().setKd(0.5)),
+                new Sphere(10d, new Point(0, 0, 50)));
+        scene.lights.add(new AreaLight(new Color(WHITE), new Point(0, 0, 100), new Vector(0, 0, -1), 10));
+        SimpleRayTracer tracer = new SimpleRayTracer(scene).setShadowSamples(16);
+
+        // the umbra, the light and the penumbra
+        tracer.traceRay(new Ray(new Point(0, 0, 10), new Vector(0, 0, -1)));
+        tracer.traceRay(new Ray(new Point(100, 0, 10), new Vector(0, 0, -1)));
+        tracer.traceRay(new Ray(new Point(20, 0, 10), new Vector(0, 0, -1)));
+        assertTrue(tracer.getStatistics().startsWith(String.format("shadow rays: 24%n")),
+                "The grid was sampled outside the penumbra");
+    }
+}
@@ -0,0 +1,57 @@
+package scene;
+
+import geometries.Geometries;
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.MissingResourceException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.Scene class
+ */
+class SceneTests {
+
+    /**
+     * Test method for {@link scene.Scene#compile()}.
+     */
+    @Test
+    void testCompile() {
+        Scene scene = new Scene("Test scene").setBackground(new Color(10, 20, 30));
+        Sphere sphere = new Sphere(1, new Point(0, 0, -5));
+        scene.geometries.add(new Geometries(sphere, new Sphere(1, new Point(5, 0, -5))),
+                new Plane(new Point(0, 0, -10), new Vector(0, 0, 1)));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 10, 0)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: nested collections are flattened into one BVH, and the scene's data is kept
+        RenderScene compiled = scene.compile();
+        assertTrue(compiled.geometries.getStatistics().startsWith("geometries: 2 bounded, 1 unbounded"),
+                "Geometries were not flattened");
+        assertSame(sphere, compiled.geometries.findClosestGeoIntersection(
+                new Ray(Point.ZERO, new Vector(0, 0, -1))).geometry, "Wrong closest geometry");
+        assertSame(scene.background, compiled.background, "Wrong background");
+        assertEquals(1, compiled.lights.size(), "Wrong amount of lights");
+
+        // TC02: later changes of the scene don't affect the compiled scene
+        scene.lights.clear();
+        scene.geometries.add(new Sphere(1, new Point(0, 0, -2)));
+        assertEquals(1, compiled.lights.size(), "Compiled lights changed");
+        assertSame(sphere, compiled.geometries.findClosestGeoIntersection(
+                new Ray(Point.ZERO, new Vector(0, 0, -1))).geometry, "Compiled geometries changed");
+        assertThrows(UnsupportedOperationException.class, () -> compiled.lights.add(null),
+                "Compiled lights are mutable");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: missing geometries
+        assertThrows(MissingResourceException.class, () -> scene.setGeometries(null).compile(),
+                "Compiled a scene without geometries");
+        // TC04: null light
+        scene.setGeometries(new Geometries()).lights.add(null);
+        assertThrows(IllegalArgumentException.class, scene::compile, "Compiled a scene with a null light");
+    }
+}